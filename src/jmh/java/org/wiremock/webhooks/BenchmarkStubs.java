@@ -0,0 +1,92 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.github.tomakehurst.wiremock.http.Cookie;
+import com.github.tomakehurst.wiremock.http.Request;
+import org.wiremock.webhooks.interceptors.WebhookTransformer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static org.wiremock.webhooks.Webhooks.webhook;
+
+class BenchmarkStubs {
+
+    static WebhookDefinition webhookDefinition(String url, int bodySize, int headerCount) {
+        WebhookDefinition definition = webhook()
+            .withMethod(POST)
+            .withUrl(url);
+
+        for (int i = 0; i < headerCount; i++) {
+            definition.withHeader("X-Benchmark-Header-" + i, "value-" + i);
+        }
+
+        byte[] body = new byte[bodySize];
+        Arrays.fill(body, (byte) 'x');
+        return definition.withBinaryBody(body);
+    }
+
+    static WebhookDefinition templatedWebhookDefinition(int headerCount) {
+        WebhookDefinition definition = webhook()
+            .withMethod(POST)
+            .withUrl("http://localhost:8080/callback{{request.path}}");
+
+        for (int i = 0; i < headerCount; i++) {
+            definition.withHeader("X-Benchmark-Header-" + i, "{{request.method}}-" + i);
+        }
+
+        return definition.withBody("{ \"url\": \"{{request.url}}\", \"method\": \"{{request.method}}\" }");
+    }
+
+    static StubMapping stubWithWebhook(WebhookDefinition definition) {
+        return post(urlEqualTo("/benchmark"))
+            .willReturn(ok())
+            .withPostServeAction("webhook", definition)
+            .build();
+    }
+
+    static Parameters webhookParameters(StubMapping stub) {
+        return stub.getPostServeActions().get("webhook");
+    }
+
+    static ServeEvent serveEventFor(StubMapping stub) {
+        LoggedRequest request = new LoggedRequest(
+            "/benchmark",
+            "http://localhost/benchmark",
+            RequestMethod.POST,
+            "127.0.0.1",
+            new HttpHeaders(),
+            Collections.<String, Cookie>emptyMap(),
+            false,
+            new Date(),
+            new byte[0],
+            Collections.<Request.Part>emptyList()
+        );
+        return ServeEvent.of(request, ResponseDefinition.ok(), stub);
+    }
+
+    static WebhookTransformer[] headerTransformers(int count) {
+        WebhookTransformer[] transformers = new WebhookTransformer[count];
+        for (int i = 0; i < count; i++) {
+            final String key = "X-Transformed-" + i;
+            transformers[i] = new WebhookTransformer() {
+                @Override
+                public WebhookDefinition transform(ServeEvent serveEvent, WebhookDefinition webhookDefinition) {
+                    return webhookDefinition.withHeader(key, "transformed");
+                }
+            };
+        }
+        return transformers;
+    }
+}
@@ -0,0 +1,57 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookDefinitionBenchmark {
+
+    @Param({"0", "1024", "65536"})
+    public int bodySize;
+
+    @Param({"1", "10"})
+    public int headerCount;
+
+    private Parameters parameters;
+    private ServeEvent serveEvent;
+    private WebhookDefinitionCache cache;
+
+    @Setup
+    public void setup() {
+        StubMapping stub = BenchmarkStubs.stubWithWebhook(
+            BenchmarkStubs.webhookDefinition("http://localhost:8080/callback", bodySize, headerCount));
+        parameters = BenchmarkStubs.webhookParameters(stub);
+        serveEvent = BenchmarkStubs.serveEventFor(stub);
+        cache = new WebhookDefinitionCache(WebhookTemplate.createHandlebars(), true);
+        cache.get(serveEvent, parameters);
+    }
+
+    @Benchmark
+    public WebhookDefinition parseDefinition() {
+        return parameters.as(WebhookDefinition.class);
+    }
+
+    @Benchmark
+    public WebhookDefinition cachedDefinition() {
+        return cache.get(serveEvent, parameters).getTemplates().get(0).render(serveEvent);
+    }
+}
@@ -0,0 +1,77 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wiremock.webhooks.interceptors.WebhookTransformer;
+import wiremock.org.apache.http.client.methods.HttpUriRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookRequestBenchmark {
+
+    @Param({"0", "1024", "65536"})
+    public int bodySize;
+
+    @Param({"1", "10"})
+    public int headerCount;
+
+    @Param({"0", "1", "4"})
+    public int transformerCount;
+
+    private WebhookDefinition definition;
+    private ServeEvent serveEvent;
+    private WebhookTransformer[] transformers;
+    private WebhookRequestTemplate request;
+    private WebhookRequestTemplate signedRequest;
+
+    @Setup
+    public void setup() {
+        definition = BenchmarkStubs.webhookDefinition("http://localhost:8080/callback", bodySize, headerCount);
+        serveEvent = BenchmarkStubs.serveEventFor(BenchmarkStubs.stubWithWebhook(definition));
+        transformers = BenchmarkStubs.headerTransformers(transformerCount);
+        request = WebhookRequestTemplate.compile(definition);
+        signedRequest = WebhookRequestTemplate.compile(definition.copy().withSignature(SignaturePolicy.signaturePolicy()
+            .withSecret("benchmark-secret")
+            .withPayload(SignaturePayload.TIMESTAMP_AND_BODY)));
+    }
+
+    @Benchmark
+    public WebhookDefinition transformerChain() {
+        WebhookDefinition transformed = transformers.length > 0 ? definition.copy() : definition;
+        for (WebhookTransformer transformer: transformers) {
+            transformed = transformer.transform(serveEvent, transformed);
+        }
+        return transformed;
+    }
+
+    @Benchmark
+    public HttpUriRequest compileRequest() {
+        return WebhookRequestTemplate.compile(definition).newRequest();
+    }
+
+    @Benchmark
+    public HttpUriRequest precompiledRequest() {
+        return request.newRequest();
+    }
+
+    @Benchmark
+    public HttpUriRequest signedRequest() {
+        return signedRequest.newRequest();
+    }
+}
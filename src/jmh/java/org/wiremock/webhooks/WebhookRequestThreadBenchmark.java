@@ -0,0 +1,107 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestListener;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+/**
+ * The time {@link Webhooks#doAction} holds the thread serving the stub response. Deliveries are
+ * waited for between invocations, outside the measured time. Run it against an earlier build to
+ * compare with preparing the webhook on that thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebhookRequestThreadBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"0", "65536"})
+    public int bodySize;
+
+    @Param({"0", "4"})
+    public int transformerCount;
+
+    private final AtomicLong received = new AtomicLong();
+
+    private WireMockServer targetServer;
+    private Webhooks webhooks;
+    private ServeEvent serveEvent;
+    private Parameters parameters;
+    private long sent;
+
+    @Setup
+    public void setup() {
+        targetServer = new WireMockServer(options().dynamicPort().disableRequestJournal());
+        targetServer.addMockServiceRequestListener(new RequestListener() {
+            @Override
+            public void requestReceived(Request request, Response response) {
+                received.incrementAndGet();
+            }
+        });
+        targetServer.start();
+        targetServer.stubFor(any(anyUrl()).willReturn(ok()));
+
+        webhooks = new Webhooks(
+            webhooksOptions()
+                .withDeliveryHistorySize(0),
+            BenchmarkStubs.headerTransformers(transformerCount));
+
+        StubMapping stub = BenchmarkStubs.stubWithWebhook(BenchmarkStubs.webhookDefinition(
+            "http://localhost:" + targetServer.port() + "/callback", bodySize, 10));
+        serveEvent = BenchmarkStubs.serveEventFor(stub);
+        parameters = BenchmarkStubs.webhookParameters(stub);
+    }
+
+    @TearDown(Level.Invocation)
+    public void awaitDeliveries() throws InterruptedException {
+        sent += BATCH_SIZE;
+        while (received.get() < sent) {
+            Thread.sleep(0, 100000);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        webhooks.shutdown();
+        targetServer.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void doAction() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            webhooks.doAction(serveEvent, null, parameters);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import wiremock.com.github.jknack.handlebars.Handlebars;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookTemplateBenchmark {
+
+    @Param({"1", "10"})
+    public int headerCount;
+
+    private Handlebars handlebars;
+    private WebhookDefinition definition;
+    private WebhookTemplate template;
+    private ServeEvent serveEvent;
+
+    @Setup
+    public void setup() {
+        handlebars = WebhookTemplate.createHandlebars();
+        definition = BenchmarkStubs.templatedWebhookDefinition(headerCount);
+        template = WebhookTemplate.compile(definition, handlebars);
+        StubMapping stub = BenchmarkStubs.stubWithWebhook(definition);
+        serveEvent = BenchmarkStubs.serveEventFor(stub);
+    }
+
+    @Benchmark
+    public WebhookDefinition compileAndRender() {
+        return WebhookTemplate.compile(definition, handlebars).render(serveEvent);
+    }
+
+    @Benchmark
+    public WebhookDefinition renderCompiled() {
+        return template.render(serveEvent);
+    }
+}
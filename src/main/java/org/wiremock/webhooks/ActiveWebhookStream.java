@@ -0,0 +1,61 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+
+import java.net.URI;
+import java.util.UUID;
+
+public class ActiveWebhookStream {
+
+    private final UUID id;
+    private final UUID serveEventId;
+    private final RequestMethod method;
+    private final URI url;
+    private final int sent;
+    private final Integer count;
+    private final long intervalMillis;
+
+    public ActiveWebhookStream(UUID id,
+                               UUID serveEventId,
+                               RequestMethod method,
+                               URI url,
+                               int sent,
+                               Integer count,
+                               long intervalMillis) {
+        this.id = id;
+        this.serveEventId = serveEventId;
+        this.method = method;
+        this.url = url;
+        this.sent = sent;
+        this.count = count;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getServeEventId() {
+        return serveEventId;
+    }
+
+    public RequestMethod getMethod() {
+        return method;
+    }
+
+    public URI getUrl() {
+        return url;
+    }
+
+    public int getSent() {
+        return sent;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+}
@@ -0,0 +1,113 @@
+package org.wiremock.webhooks;
+
+import wiremock.com.fasterxml.jackson.annotation.JsonCreator;
+import wiremock.com.fasterxml.jackson.annotation.JsonProperty;
+
+import static wiremock.com.google.common.base.Preconditions.checkArgument;
+
+public class BatchPolicy {
+
+    public static final int DEFAULT_MAX_SIZE = 100;
+    public static final long DEFAULT_LINGER_MILLIS = 100;
+    public static final String DEFAULT_PREFIX = "[";
+    public static final String DEFAULT_SEPARATOR = ",";
+    public static final String DEFAULT_SUFFIX = "]";
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private long lingerMillis = DEFAULT_LINGER_MILLIS;
+    private String key;
+    private String prefix = DEFAULT_PREFIX;
+    private String separator = DEFAULT_SEPARATOR;
+    private String suffix = DEFAULT_SUFFIX;
+
+    @JsonCreator
+    public BatchPolicy(@JsonProperty("maxSize") Integer maxSize,
+                       @JsonProperty("lingerMillis") Long lingerMillis,
+                       @JsonProperty("key") String key,
+                       @JsonProperty("prefix") String prefix,
+                       @JsonProperty("separator") String separator,
+                       @JsonProperty("suffix") String suffix) {
+        if (maxSize != null) {
+            withMaxSize(maxSize);
+        }
+        if (lingerMillis != null) {
+            withLingerMillis(lingerMillis);
+        }
+        this.key = key;
+        if (prefix != null) {
+            this.prefix = prefix;
+        }
+        if (separator != null) {
+            this.separator = separator;
+        }
+        if (suffix != null) {
+            this.suffix = suffix;
+        }
+    }
+
+    public BatchPolicy() {
+    }
+
+    public static BatchPolicy batchPolicy() {
+        return new BatchPolicy();
+    }
+
+    BatchPolicy copy() {
+        BatchPolicy copy = new BatchPolicy();
+        copy.maxSize = maxSize;
+        copy.lingerMillis = lingerMillis;
+        copy.key = key;
+        copy.prefix = prefix;
+        copy.separator = separator;
+        copy.suffix = suffix;
+        return copy;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getLingerMillis() {
+        return lingerMillis;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String getSeparator() {
+        return separator;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public BatchPolicy withMaxSize(int maxSize) {
+        checkArgument(maxSize > 0, "Batch max size must be greater than zero");
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    public BatchPolicy withLingerMillis(long lingerMillis) {
+        checkArgument(lingerMillis >= 0, "Batch linger time must not be negative");
+        this.lingerMillis = lingerMillis;
+        return this;
+    }
+
+    public BatchPolicy withKey(String key) {
+        this.key = key;
+        return this;
+    }
+
+    public BatchPolicy withBodyTemplate(String prefix, String separator, String suffix) {
+        this.prefix = prefix;
+        this.separator = separator;
+        this.suffix = suffix;
+        return this;
+    }
+}
@@ -0,0 +1,38 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.common.Notifier;
+
+import java.util.UUID;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A webhook waiting out its delay before it joins a batch.
+ */
+class BatchedWebhook implements Runnable {
+
+    private final UUID serveEventId;
+    private final WebhookDefinition definition;
+    private final DispatchContext context;
+    private final Notifier notifier;
+
+    BatchedWebhook(UUID serveEventId, WebhookDefinition definition, DispatchContext context, Notifier notifier) {
+        this.serveEventId = serveEventId;
+        this.definition = definition;
+        this.context = context;
+        this.notifier = notifier;
+    }
+
+    void schedule(long delayMillis) {
+        if (delayMillis <= 0) {
+            run();
+        } else if (!this.context.dispatcher.schedule(this, delayMillis, MILLISECONDS) && !this.context.dispatcher.isShutdown()) {
+            this.notifier.error("Too many delayed webhooks, giving up on a batched webhook");
+        }
+    }
+
+    @Override
+    public void run() {
+        this.context.batcher.add(this.serveEventId, this.definition, this.context, this.notifier);
+    }
+}
@@ -0,0 +1,25 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.admin.AdminTask;
+import com.github.tomakehurst.wiremock.admin.model.PathParams;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+/**
+ * Cancels every running stream.
+ */
+class CancelAllWebhookStreamsTask implements AdminTask {
+
+    private final WebhookStreams streams;
+
+    CancelAllWebhookStreamsTask(WebhookStreams streams) {
+        this.streams = streams;
+    }
+
+    @Override
+    public ResponseDefinition execute(Admin admin, Request request, PathParams pathParams) {
+        streams.cancelAll();
+        return ResponseDefinition.ok();
+    }
+}
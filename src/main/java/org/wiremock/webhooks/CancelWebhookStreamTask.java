@@ -0,0 +1,35 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.admin.AdminTask;
+import com.github.tomakehurst.wiremock.admin.model.PathParams;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.UUID;
+
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
+
+/**
+ * Cancels a single running stream by its id.
+ */
+class CancelWebhookStreamTask implements AdminTask {
+
+    private final WebhookStreams streams;
+
+    CancelWebhookStreamTask(WebhookStreams streams) {
+        this.streams = streams;
+    }
+
+    @Override
+    public ResponseDefinition execute(Admin admin, Request request, PathParams pathParams) {
+        UUID streamId;
+        try {
+            streamId = UUID.fromString(pathParams.get("id"));
+        } catch (IllegalArgumentException e) {
+            return new ResponseDefinition(HTTP_BAD_REQUEST, e.getMessage());
+        }
+
+        return streams.cancel(streamId) ? ResponseDefinition.ok() : ResponseDefinition.notFound();
+    }
+}
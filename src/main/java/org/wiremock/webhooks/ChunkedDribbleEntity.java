@@ -0,0 +1,73 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.http.ChunkedDribbleDelay;
+import wiremock.org.apache.http.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * Sends a webhook body in a number of chunks spread evenly over a total duration, the same way
+ * WireMock dribbles chunked response bodies.
+ */
+class ChunkedDribbleEntity extends AbstractHttpEntity {
+
+    private final byte[] body;
+    private final int numberOfChunks;
+    private final long pauseMillis;
+
+    ChunkedDribbleEntity(byte[] body, ChunkedDribbleDelay delay) {
+        this.body = body;
+        this.numberOfChunks = Math.max(1, Math.min(body.length, delay.getNumberOfChunks()));
+        this.pauseMillis = delay.getTotalDuration() / this.numberOfChunks;
+        setChunked(true);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public InputStream getContent() {
+        return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        int chunkSize = body.length / numberOfChunks;
+        int offset = 0;
+        for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+            int length = chunk == numberOfChunks - 1 ? body.length - offset : chunkSize;
+            out.write(body, offset, length);
+            out.flush();
+            offset += length;
+
+            if (chunk < numberOfChunks - 1) {
+                pause();
+            }
+        }
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    private void pause() throws InterruptedIOException {
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while dribbling webhook body");
+        }
+    }
+}
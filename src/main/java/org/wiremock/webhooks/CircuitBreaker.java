@@ -0,0 +1,105 @@
+package org.wiremock.webhooks;
+
+/**
+ * Tracks delivery outcomes for a single target host. Outcomes are counted in consecutive windows
+ * of {@code minimumCalls}; a window whose failure rate reaches the threshold opens the circuit.
+ * Once the open duration has passed a limited number of probe deliveries are let through, and
+ * the circuit closes again only if all of them succeed.
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final CircuitBreakerSettings settings;
+
+    private State state = State.CLOSED;
+    private int successes;
+    private int failures;
+    private long openedAt;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    CircuitBreaker(CircuitBreakerSettings settings) {
+        this.settings = settings;
+    }
+
+    synchronized boolean tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < settings.getOpenDurationMillis()) {
+                return false;
+            }
+
+            state = State.HALF_OPEN;
+            probesIssued = 0;
+            probesSucceeded = 0;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (probesIssued >= settings.getHalfOpenProbes()) {
+                return false;
+            }
+
+            probesIssued++;
+        }
+
+        return true;
+    }
+
+    synchronized void recordSuccess() {
+        if (state == State.HALF_OPEN) {
+            probesSucceeded++;
+            if (probesSucceeded >= settings.getHalfOpenProbes()) {
+                close();
+            }
+            return;
+        }
+
+        successes++;
+        evaluateWindow();
+    }
+
+    synchronized void recordFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            open(now);
+            return;
+        }
+
+        failures++;
+        if (evaluateWindow()) {
+            open(now);
+        }
+    }
+
+    synchronized long millisUntilProbe(long now) {
+        return state == State.OPEN ? Math.max(0, openedAt + settings.getOpenDurationMillis() - now) : 0;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private boolean evaluateWindow() {
+        int calls = successes + failures;
+        if (calls < settings.getMinimumCalls()) {
+            return false;
+        }
+
+        boolean tripped = (double) failures / calls >= settings.getFailureRateThreshold();
+        successes = 0;
+        failures = 0;
+        return tripped;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+        successes = 0;
+        failures = 0;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        successes = 0;
+        failures = 0;
+    }
+}
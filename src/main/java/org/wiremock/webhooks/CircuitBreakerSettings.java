@@ -0,0 +1,60 @@
+package org.wiremock.webhooks;
+
+import static wiremock.com.google.common.base.Preconditions.checkArgument;
+
+public class CircuitBreakerSettings {
+
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    public static final int DEFAULT_MINIMUM_CALLS = 20;
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = 10000;
+    public static final int DEFAULT_HALF_OPEN_PROBES = 3;
+
+    private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+    private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+    private long openDurationMillis = DEFAULT_OPEN_DURATION_MILLIS;
+    private int halfOpenProbes = DEFAULT_HALF_OPEN_PROBES;
+
+    public static CircuitBreakerSettings circuitBreaker() {
+        return new CircuitBreakerSettings();
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public long getOpenDurationMillis() {
+        return openDurationMillis;
+    }
+
+    public int getHalfOpenProbes() {
+        return halfOpenProbes;
+    }
+
+    public CircuitBreakerSettings withFailureRateThreshold(double failureRateThreshold) {
+        checkArgument(failureRateThreshold > 0 && failureRateThreshold <= 1, "Failure rate threshold must be greater than 0 and at most 1");
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    public CircuitBreakerSettings withMinimumCalls(int minimumCalls) {
+        checkArgument(minimumCalls > 0, "Minimum calls must be greater than zero");
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    public CircuitBreakerSettings withOpenDurationMillis(long openDurationMillis) {
+        checkArgument(openDurationMillis > 0, "Open duration must be greater than zero");
+        this.openDurationMillis = openDurationMillis;
+        return this;
+    }
+
+    public CircuitBreakerSettings withHalfOpenProbes(int halfOpenProbes) {
+        checkArgument(halfOpenProbes > 0, "Half open probes must be greater than zero");
+        this.halfOpenProbes = halfOpenProbes;
+        return this;
+    }
+}
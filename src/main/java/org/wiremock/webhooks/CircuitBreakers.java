@@ -0,0 +1,41 @@
+package org.wiremock.webhooks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+class CircuitBreakers {
+
+    private final CircuitBreakerSettings settings;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final AtomicLong shortCircuitedCount = new AtomicLong();
+
+    CircuitBreakers(CircuitBreakerSettings settings) {
+        this.settings = settings;
+    }
+
+    boolean isEnabled() {
+        return settings != null;
+    }
+
+    CircuitBreaker forTarget(String key) {
+        CircuitBreaker breaker = breakers.get(key);
+        if (breaker == null) {
+            CircuitBreaker newBreaker = new CircuitBreaker(settings);
+            breaker = breakers.putIfAbsent(key, newBreaker);
+            if (breaker == null) {
+                breaker = newBreaker;
+            }
+        }
+
+        return breaker;
+    }
+
+    void recordShortCircuit() {
+        shortCircuitedCount.incrementAndGet();
+    }
+
+    long getShortCircuitedCount() {
+        return shortCircuitedCount.get();
+    }
+}
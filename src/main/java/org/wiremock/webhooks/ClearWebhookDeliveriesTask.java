@@ -0,0 +1,22 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.admin.AdminTask;
+import com.github.tomakehurst.wiremock.admin.model.PathParams;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+class ClearWebhookDeliveriesTask implements AdminTask {
+
+    private final DeliveryHistory history;
+
+    ClearWebhookDeliveriesTask(DeliveryHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public ResponseDefinition execute(Admin admin, Request request, PathParams pathParams) {
+        history.clear();
+        return ResponseDefinition.ok();
+    }
+}
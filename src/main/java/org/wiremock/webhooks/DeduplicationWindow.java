@@ -0,0 +1,73 @@
+package org.wiremock.webhooks;
+
+import wiremock.com.google.common.hash.HashFunction;
+import wiremock.com.google.common.hash.Hashing;
+
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Remembers the deduplication keys seen in the last window, as 64 bit hashes so that each key
+ * takes the same small amount of memory however long it is. Keys are held in the order they were
+ * first seen, so expired keys are always at the front. Once the cache is full the oldest key is
+ * forgotten early to make room for a new one.
+ */
+class DeduplicationWindow {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final long windowMillis;
+    private final int maxSize;
+    private final LinkedHashMap<Long, Long> seenAtMillis = new LinkedHashMap<>();
+
+    DeduplicationWindow(long windowMillis, int maxSize) {
+        this.windowMillis = windowMillis;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Records the key for the stub, returning false if it was already seen within the window.
+     */
+    boolean firstSeen(UUID stubId, String key, long nowMillis) {
+        Long hash = hash(stubId, key);
+
+        synchronized (this) {
+            expire(nowMillis);
+            if (seenAtMillis.containsKey(hash)) {
+                return false;
+            }
+
+            if (seenAtMillis.size() >= maxSize) {
+                Iterator<Long> oldest = seenAtMillis.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+            }
+            seenAtMillis.put(hash, nowMillis);
+            return true;
+        }
+    }
+
+    synchronized void clear() {
+        seenAtMillis.clear();
+    }
+
+    private void expire(long nowMillis) {
+        Iterator<Map.Entry<Long, Long>> entries = seenAtMillis.entrySet().iterator();
+        while (entries.hasNext() && nowMillis - entries.next().getValue() >= windowMillis) {
+            entries.remove();
+        }
+    }
+
+    private static long hash(UUID stubId, String key) {
+        return HASH.newHasher()
+            .putLong(stubId == null ? 0 : stubId.getMostSignificantBits())
+            .putLong(stubId == null ? 0 : stubId.getLeastSignificantBits())
+            .putString(key, UTF_8)
+            .hash()
+            .asLong();
+    }
+}
@@ -0,0 +1,90 @@
+package org.wiremock.webhooks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed size ring buffer of the most recent delivery attempts. Recording is a single atomic
+ * increment and array store, with the oldest records silently overwritten once it is full.
+ */
+class DeliveryHistory {
+
+    private final AtomicReferenceArray<WebhookDelivery> deliveries;
+    private final AtomicLong sequence = new AtomicLong();
+
+    DeliveryHistory(int capacity) {
+        this.deliveries = new AtomicReferenceArray<>(capacity);
+    }
+
+    boolean isEnabled() {
+        return deliveries.length() > 0;
+    }
+
+    void record(WebhookDelivery delivery) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long index = sequence.getAndIncrement();
+        deliveries.set((int) (index % deliveries.length()), delivery);
+    }
+
+    List<WebhookDelivery> find(Query query) {
+        List<WebhookDelivery> matches = new ArrayList<>();
+        long newest = sequence.get() - 1;
+        long oldest = Math.max(0, newest - deliveries.length() + 1);
+        int skipped = 0;
+
+        for (long index = newest; index >= oldest && matches.size() < query.limit; index--) {
+            WebhookDelivery delivery = deliveries.get((int) (index % deliveries.length()));
+            if (delivery == null || !query.matches(delivery)) {
+                continue;
+            }
+
+            if (skipped < query.offset) {
+                skipped++;
+                continue;
+            }
+
+            matches.add(delivery);
+        }
+
+        return matches;
+    }
+
+    void clear() {
+        for (int i = 0; i < deliveries.length(); i++) {
+            deliveries.set(i, null);
+        }
+    }
+
+    static class Query {
+
+        final UUID serveEventId;
+        final String target;
+        final Integer status;
+        final int offset;
+        final int limit;
+
+        Query(UUID serveEventId, String target, Integer status, int offset, int limit) {
+            this.serveEventId = serveEventId;
+            this.target = target;
+            this.status = status;
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        static Query all() {
+            return new Query(null, null, null, 0, Integer.MAX_VALUE);
+        }
+
+        boolean matches(WebhookDelivery delivery) {
+            return (serveEventId == null || serveEventId.equals(delivery.getServeEventId())) &&
+                (target == null || target.equals(delivery.getTarget())) &&
+                (status == null || status.equals(delivery.getStatus()));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.wiremock.webhooks;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A fixed ring of lanes that ordered webhooks are hashed onto by their ordering key. A lane hands
+ * the dispatcher one task at a time and holds the next back until the running one's {@link Ticket}
+ * has been completed, so work sharing a key runs strictly first in, first out. Keys that hash to
+ * different lanes run in parallel across the whole pool.
+ */
+class DeliveryLanes {
+
+    private final WebhookDispatcher dispatcher;
+    private final Lane[] lanes;
+    private final int mask;
+    private final AtomicInteger waitingCount = new AtomicInteger();
+
+    DeliveryLanes(WebhookDispatcher dispatcher, int laneCount) {
+        this.dispatcher = dispatcher;
+        int size = Integer.highestOneBit(Math.max(1, laneCount - 1)) << 1;
+        this.lanes = new Lane[size];
+        for (int i = 0; i < size; i++) {
+            lanes[i] = new Lane();
+        }
+        this.mask = size - 1;
+    }
+
+    Lane forKey(String key) {
+        int hash = key.hashCode();
+        return lanes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    int getWaitingCount() {
+        return waitingCount.get();
+    }
+
+    /**
+     * Drops every task still waiting for its lane, returning how many there were.
+     */
+    int clear() {
+        int cleared = 0;
+        for (Lane lane: lanes) {
+            cleared += lane.clear();
+        }
+        return cleared;
+    }
+
+    class Lane {
+
+        private final Queue<Task> waiting = new ArrayDeque<>();
+        private boolean busy;
+
+        /**
+         * Runs the task once every task submitted to this lane before it has completed its ticket.
+         */
+        void submit(Task task) {
+            synchronized (this) {
+                if (busy) {
+                    waiting.add(task);
+                    waitingCount.incrementAndGet();
+                    return;
+                }
+                busy = true;
+            }
+            start(task);
+        }
+
+        private void release() {
+            Task next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    busy = false;
+                    return;
+                }
+            }
+            waitingCount.decrementAndGet();
+            start(next);
+        }
+
+        private synchronized int clear() {
+            int cleared = waiting.size();
+            waiting.clear();
+            waitingCount.addAndGet(-cleared);
+            return cleared;
+        }
+
+        private void start(Task task) {
+            task.ticket = new Ticket(this);
+            dispatcher.schedule(task, 0, MILLISECONDS);
+        }
+    }
+
+    /**
+     * Work run on a lane. It must complete its ticket once, plus once for every {@link Ticket#add()}.
+     */
+    abstract static class Task implements Runnable {
+
+        Ticket ticket;
+    }
+
+    /**
+     * Releases a lane once the task holding it, and every webhook the task added, has completed.
+     */
+    static class Ticket implements WebhookCompletion {
+
+        private final Lane lane;
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+
+        Ticket(Lane lane) {
+            this.lane = lane;
+        }
+
+        void add() {
+            outstanding.incrementAndGet();
+        }
+
+        @Override
+        public void completed(boolean delivered) {
+            if (outstanding.decrementAndGet() == 0) {
+                lane.release();
+            }
+        }
+    }
+}
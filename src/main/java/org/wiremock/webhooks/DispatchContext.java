@@ -0,0 +1,35 @@
+package org.wiremock.webhooks;
+
+import wiremock.org.apache.http.impl.client.CloseableHttpClient;
+
+/**
+ * The collaborators shared by every webhook delivery made through one {@link Webhooks} instance.
+ */
+class DispatchContext {
+
+    final CloseableHttpClient httpClient;
+    final WebhookDispatcher dispatcher;
+    final CircuitBreakers circuitBreakers;
+    final TargetLimiters limiters;
+    final WebhookMetrics metrics;
+    final DeliveryHistory history;
+    final WebhookJournal journal;
+    final WebhookPipeline pipeline;
+    final WebhookBatcher batcher = new WebhookBatcher();
+    final WebhookStreams streams = new WebhookStreams();
+    final int responseCaptureLimit;
+    final boolean responseBodyLoggingEnabled;
+
+    DispatchContext(WebhooksOptions options, CloseableHttpClient httpClient, WebhookDispatcher dispatcher, CircuitBreakers circuitBreakers, DeliveryHistory history, WebhookJournal journal, WebhookPipeline pipeline) {
+        this.responseCaptureLimit = options.getResponseCaptureLimit();
+        this.responseBodyLoggingEnabled = options.isResponseBodyLoggingEnabled();
+        this.httpClient = httpClient;
+        this.dispatcher = dispatcher;
+        this.circuitBreakers = circuitBreakers;
+        this.limiters = new TargetLimiters(options.getRateLimit(), options.getTargetRateLimits());
+        this.metrics = new WebhookMetrics(dispatcher, circuitBreakers, limiters, pipeline, streams);
+        this.history = history;
+        this.journal = journal;
+        this.pipeline = pipeline;
+    }
+}
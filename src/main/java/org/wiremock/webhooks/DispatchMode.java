@@ -0,0 +1,95 @@
+package org.wiremock.webhooks;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+
+public enum DispatchMode {
+
+    /**
+     * Each in-flight webhook holds a platform thread for the duration of its HTTP call.
+     */
+    BLOCKING {
+        @Override
+        ThreadFactory threadFactory(String prefix) {
+            return platformThreads(prefix);
+        }
+    },
+
+    /**
+     * Each in-flight webhook runs on its own virtual thread, so the pool size can be raised to
+     * tens of thousands. Falls back to {@link #BLOCKING} on runtimes without virtual threads, with
+     * the pool size capped at {@link #MAX_PLATFORM_POOL_SIZE}.
+     */
+    VIRTUAL_THREADS {
+        @Override
+        ThreadFactory threadFactory(String prefix) {
+            ThreadFactory factory = virtualThreads(prefix);
+            if (factory == null) {
+                notifier().info("Virtual threads are not supported by this JVM, dispatching webhooks on platform threads");
+                return platformThreads(prefix);
+            }
+            return factory;
+        }
+
+        @Override
+        int poolSize(int requested) {
+            if (requested > MAX_PLATFORM_POOL_SIZE && virtualThreads("webhook-probe") == null) {
+                notifier().info(String.format(
+                    "Virtual threads are not supported by this JVM, capping the webhook pool size of %d at %d platform threads",
+                    requested,
+                    MAX_PLATFORM_POOL_SIZE
+                ));
+                return MAX_PLATFORM_POOL_SIZE;
+            }
+            return requested;
+        }
+    };
+
+    /**
+     * The most platform threads {@link #VIRTUAL_THREADS} starts when it has to fall back to them.
+     */
+    public static final int MAX_PLATFORM_POOL_SIZE = 200;
+
+    abstract ThreadFactory threadFactory(String prefix);
+
+    /**
+     * The number of dispatch threads to run for the configured pool size.
+     */
+    int poolSize(int requested) {
+        return requested;
+    }
+
+    /**
+     * A factory for named virtual threads, or null if this JVM can't create them.
+     */
+    private static ThreadFactory virtualThreads(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix + "-", 1L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Daemon threads, so that pending webhooks never keep the JVM alive on their own.
+     */
+    static ThreadFactory platformThreads(final String prefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}
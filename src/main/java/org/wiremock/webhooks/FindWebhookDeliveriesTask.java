@@ -0,0 +1,57 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.admin.AdminTask;
+import com.github.tomakehurst.wiremock.admin.model.PathParams;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.UUID;
+
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
+
+class FindWebhookDeliveriesTask implements AdminTask {
+
+    static final int DEFAULT_LIMIT = 100;
+
+    private final DeliveryHistory history;
+
+    FindWebhookDeliveriesTask(DeliveryHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public ResponseDefinition execute(Admin admin, Request request, PathParams pathParams) {
+        DeliveryHistory.Query query;
+        try {
+            query = new DeliveryHistory.Query(
+                serveEventIdFrom(request.queryParameter("serveEventId")),
+                stringFrom(request.queryParameter("target")),
+                integerFrom(request.queryParameter("status")),
+                intFrom(request.queryParameter("offset"), 0),
+                intFrom(request.queryParameter("limit"), DEFAULT_LIMIT)
+            );
+        } catch (IllegalArgumentException e) {
+            return new ResponseDefinition(HTTP_BAD_REQUEST, e.getMessage());
+        }
+
+        return ResponseDefinition.okForJson(new WebhookDeliveriesResult(history.find(query), query.offset, query.limit));
+    }
+
+    private static String stringFrom(QueryParameter parameter) {
+        return parameter.isPresent() ? parameter.firstValue() : null;
+    }
+
+    private static UUID serveEventIdFrom(QueryParameter parameter) {
+        return parameter.isPresent() ? UUID.fromString(parameter.firstValue()) : null;
+    }
+
+    private static Integer integerFrom(QueryParameter parameter) {
+        return parameter.isPresent() ? Integer.valueOf(parameter.firstValue()) : null;
+    }
+
+    private static int intFrom(QueryParameter parameter, int defaultValue) {
+        return parameter.isPresent() ? Integer.parseInt(parameter.firstValue()) : defaultValue;
+    }
+}
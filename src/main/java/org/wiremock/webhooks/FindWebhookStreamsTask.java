@@ -0,0 +1,21 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.admin.AdminTask;
+import com.github.tomakehurst.wiremock.admin.model.PathParams;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+class FindWebhookStreamsTask implements AdminTask {
+
+    private final WebhookStreams streams;
+
+    FindWebhookStreamsTask(WebhookStreams streams) {
+        this.streams = streams;
+    }
+
+    @Override
+    public ResponseDefinition execute(Admin admin, Request request, PathParams pathParams) {
+        return ResponseDefinition.okForJson(new WebhookStreamsResult(streams.list()));
+    }
+}
@@ -0,0 +1,153 @@
+package org.wiremock.webhooks;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A hashed wheel timer: tasks are dropped into one of a fixed ring of buckets according to their
+ * deadline, making scheduling O(1) with a single small allocation per task. A single thread visits
+ * one bucket per tick, so deadlines are only honoured to within a tick duration. New tasks reach
+ * the tick thread through a lock-free queue and each bucket is only ever touched by that thread.
+ */
+class HashedWheelWebhookScheduler implements WebhookScheduler {
+
+    private final long tickNanos;
+    private final Queue<Timeout>[] wheel;
+    private final int mask;
+    private final ConcurrentLinkedQueue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final long startTime;
+    private final Thread worker;
+    private volatile boolean stopped;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    HashedWheelWebhookScheduler(long tickMillis, int wheelSize) {
+        this.tickNanos = MILLISECONDS.toNanos(tickMillis);
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.wheel = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+
+        this.worker = DispatchMode.platformThreads("webhook-wheel").newThread(new Worker());
+        worker.start();
+    }
+
+    @Override
+    public void schedule(Runnable task, long delayMillis) {
+        if (stopped) {
+            throw new RejectedExecutionException("Webhook timer has been shut down");
+        }
+
+        pendingCount.incrementAndGet();
+        incoming.add(new Timeout(task, System.nanoTime() - startTime + MILLISECONDS.toNanos(Math.max(0, delayMillis))));
+    }
+
+    @Override
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    @Override
+    public int shutdown() {
+        stopped = true;
+        worker.interrupt();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return pendingCount.getAndSet(0);
+    }
+
+    private static class Timeout {
+
+        final Runnable task;
+        final long deadline;
+        long remainingRounds;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        private long tick;
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                long currentTime = waitForNextTick();
+                if (currentTime < 0) {
+                    return;
+                }
+
+                transferIncoming();
+                expire(wheel[(int) (tick & mask)], currentTime);
+                tick++;
+            }
+        }
+
+        private void transferIncoming() {
+            Timeout timeout;
+            while ((timeout = incoming.poll()) != null) {
+                long calculatedTick = timeout.deadline / tickNanos;
+                timeout.remainingRounds = (calculatedTick - tick) / wheel.length;
+                long targetTick = Math.max(calculatedTick, tick);
+                wheel[(int) (targetTick & mask)].add(timeout);
+            }
+        }
+
+        private void expire(Queue<Timeout> bucket, long currentTime) {
+            Iterator<Timeout> timeouts = bucket.iterator();
+            while (timeouts.hasNext()) {
+                Timeout timeout = timeouts.next();
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= currentTime) {
+                    timeouts.remove();
+                    pendingCount.decrementAndGet();
+                    runSafely(timeout.task);
+                } else {
+                    timeout.remainingRounds--;
+                }
+            }
+        }
+
+        private void runSafely(Runnable task) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                notifier().error("Delayed webhook task failed", e);
+            }
+        }
+
+        private long waitForNextTick() {
+            long deadline = tickNanos * (tick + 1);
+            while (true) {
+                long currentTime = System.nanoTime() - startTime;
+                long sleepNanos = deadline - currentTime;
+                if (sleepNanos <= 0) {
+                    return currentTime;
+                }
+
+                try {
+                    Thread.sleep(NANOSECONDS.toMillis(sleepNanos), (int) (sleepNanos % 1000000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return -1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.common.Notifier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A webhook accepted into the durable queue. Only its journal entry is held while it waits; the
+ * definition is read back from the journal when it falls due.
+ */
+class JournaledWebhook implements Runnable, WebhookCompletion {
+
+    private final WebhookJournal.Entry entry;
+    private final DispatchContext context;
+    private final Notifier notifier;
+    private final WebhookCompletion completion;
+
+    JournaledWebhook(WebhookJournal.Entry entry, DispatchContext context, Notifier notifier, WebhookCompletion completion) {
+        this.entry = entry;
+        this.context = context;
+        this.notifier = notifier;
+        this.completion = completion;
+    }
+
+    void schedule() {
+        this.context.metrics.scheduled();
+        if (!this.context.dispatcher.schedule(this, this.entry.dueAtMillis - System.currentTimeMillis(), MILLISECONDS)
+                && !this.context.dispatcher.isShutdown()) {
+            // Left in the journal if shut down, to be sent when it is next opened
+            this.notifier.error("Too many delayed webhooks, giving up on a webhook from the durable queue");
+            completed(false);
+        }
+    }
+
+    @Override
+    public void run() {
+        WebhookDefinition definition;
+        try {
+            definition = this.context.journal.read(this.entry);
+        } catch (Exception e) {
+            this.notifier.error("Unable to read webhook from the durable queue, giving up on it: " + e.getMessage());
+            completed(false);
+            return;
+        }
+
+        // A non-positive delay keeps the runner's schedule lag measured from the original due time
+        new WebhookRunner(
+            this.entry.serveEventId,
+            definition,
+            WebhookRequestTemplate.compile(definition),
+            this.context,
+            this.notifier,
+            this,
+            Math.min(0, this.entry.dueAtMillis - System.currentTimeMillis())
+        ).run();
+    }
+
+    @Override
+    public void completed(boolean delivered) {
+        this.context.journal.complete(this.entry);
+        if (this.completion != null) {
+            this.completion.completed(delivered);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.wiremock.webhooks;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram with power-of-two millisecond buckets. Percentiles are reported as the
+ * upper bound of the bucket they fall in, which is accurate enough for capacity planning and keeps
+ * recording to a couple of atomic increments.
+ */
+class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    void record(long millis) {
+        long value = Math.max(0, millis);
+        buckets.incrementAndGet(bucketFor(value));
+        count.incrementAndGet();
+        totalMillis.addAndGet(value);
+
+        long max = maxMillis.get();
+        while (value > max && !maxMillis.compareAndSet(max, value)) {
+            max = maxMillis.get();
+        }
+    }
+
+    LatencySnapshot snapshot() {
+        long total = count.get();
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+
+        long max = maxMillis.get();
+        return new LatencySnapshot(
+            total,
+            total == 0 ? 0 : (double) totalMillis.get() / total,
+            max,
+            percentile(counts, total, 0.50, max),
+            percentile(counts, total, 0.95, max),
+            percentile(counts, total, 0.99, max)
+        );
+    }
+
+    private static int bucketFor(long millis) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long max) {
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long upperBound = i == 0 ? 0 : (1L << i) - 1;
+                return Math.min(upperBound, max);
+            }
+        }
+
+        return max;
+    }
+}
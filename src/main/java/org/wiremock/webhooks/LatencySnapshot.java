@@ -0,0 +1,47 @@
+package org.wiremock.webhooks;
+
+import java.beans.ConstructorProperties;
+
+public class LatencySnapshot {
+
+    private final long count;
+    private final double meanMillis;
+    private final long maxMillis;
+    private final long p50Millis;
+    private final long p95Millis;
+    private final long p99Millis;
+
+    @ConstructorProperties({"count", "meanMillis", "maxMillis", "p50Millis", "p95Millis", "p99Millis"})
+    public LatencySnapshot(long count, double meanMillis, long maxMillis, long p50Millis, long p95Millis, long p99Millis) {
+        this.count = count;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+        this.p50Millis = p50Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public long getP50Millis() {
+        return p50Millis;
+    }
+
+    public long getP95Millis() {
+        return p95Millis;
+    }
+
+    public long getP99Millis() {
+        return p99Millis;
+    }
+}
@@ -0,0 +1,83 @@
+package org.wiremock.webhooks;
+
+import wiremock.com.fasterxml.jackson.annotation.JsonCreator;
+import wiremock.com.fasterxml.jackson.annotation.JsonProperty;
+
+import static wiremock.com.google.common.base.Preconditions.checkArgument;
+
+public class RateLimit {
+
+    private double permitsPerSecond;
+    private Integer burst;
+    private int maxInFlight;
+
+    @JsonCreator
+    public RateLimit(@JsonProperty("permitsPerSecond") Double permitsPerSecond,
+                     @JsonProperty("burst") Integer burst,
+                     @JsonProperty("maxInFlight") Integer maxInFlight) {
+        if (permitsPerSecond != null) {
+            withPermitsPerSecond(permitsPerSecond);
+        }
+        if (burst != null) {
+            withBurst(burst);
+        }
+        if (maxInFlight != null) {
+            withMaxInFlight(maxInFlight);
+        }
+    }
+
+    public RateLimit() {
+    }
+
+    public static RateLimit rateLimit() {
+        return new RateLimit();
+    }
+
+    RateLimit copy() {
+        RateLimit copy = new RateLimit();
+        copy.permitsPerSecond = permitsPerSecond;
+        copy.burst = burst;
+        copy.maxInFlight = maxInFlight;
+        return copy;
+    }
+
+    /**
+     * The sustained rate at which webhooks may be sent, or zero for no rate limit.
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * How many webhooks may be sent back to back after a quiet period. Defaults to one second's
+     * worth of permits.
+     */
+    public int getBurst() {
+        return burst != null ? burst : (int) Math.max(1, Math.ceil(permitsPerSecond));
+    }
+
+    /**
+     * The number of webhooks that may be awaiting a response at once, or zero for no limit.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public RateLimit withPermitsPerSecond(double permitsPerSecond) {
+        checkArgument(permitsPerSecond >= 0, "Permits per second must not be negative");
+        this.permitsPerSecond = permitsPerSecond;
+        return this;
+    }
+
+    public RateLimit withBurst(int burst) {
+        checkArgument(burst > 0, "Burst must be greater than zero");
+        this.burst = burst;
+        return this;
+    }
+
+    public RateLimit withMaxInFlight(int maxInFlight) {
+        checkArgument(maxInFlight >= 0, "Max in flight must not be negative");
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+}
@@ -0,0 +1,58 @@
+package org.wiremock.webhooks;
+
+/**
+ * What happens to a newly served request's webhooks when the dispatch queue or the timer is full.
+ * Webhooks that have already been accepted are never subject to the policy.
+ */
+public enum RejectionPolicy {
+
+    /**
+     * Drops the longest queued serve event that hasn't been prepared yet to make room. If there
+     * isn't one, for example because it is the timer that is full, the new one is dropped instead.
+     */
+    DROP_OLDEST {
+        @Override
+        boolean admit(WebhookDispatcher dispatcher, Runnable task, boolean ordered) {
+            return dispatcher.dropOldest();
+        }
+    },
+
+    DROP_NEWEST {
+        @Override
+        boolean admit(WebhookDispatcher dispatcher, Runnable task, boolean ordered) {
+            return false;
+        }
+    },
+
+    /**
+     * Prepares the webhooks on the thread serving the stub, which also sends those without a
+     * delay. Ordered webhooks wait for room instead, as running them straight away would let them
+     * overtake their lane.
+     */
+    CALLER_RUNS {
+        @Override
+        boolean admit(WebhookDispatcher dispatcher, Runnable task, boolean ordered) {
+            if (ordered) {
+                return dispatcher.awaitCapacity();
+            }
+
+            dispatcher.runForCaller(task);
+            return false;
+        }
+    },
+
+    /**
+     * Holds the thread serving the stub until there is room.
+     */
+    BLOCK {
+        @Override
+        boolean admit(WebhookDispatcher dispatcher, Runnable task, boolean ordered) {
+            return dispatcher.awaitCapacity();
+        }
+    };
+
+    /**
+     * Called once for each rejected task, returning whether it should still be queued.
+     */
+    abstract boolean admit(WebhookDispatcher dispatcher, Runnable task, boolean ordered);
+}
@@ -0,0 +1,75 @@
+package org.wiremock.webhooks;
+
+import wiremock.com.fasterxml.jackson.annotation.JsonCreator;
+import wiremock.com.fasterxml.jackson.annotation.JsonProperty;
+
+import static wiremock.com.google.common.base.Preconditions.checkArgument;
+
+public class RepeatPolicy {
+
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+    private Integer count;
+    private long intervalMillis = DEFAULT_INTERVAL_MILLIS;
+
+    @JsonCreator
+    public RepeatPolicy(@JsonProperty("count") Integer count,
+                        @JsonProperty("intervalMillis") Long intervalMillis,
+                        @JsonProperty("ratePerSecond") Double ratePerSecond) {
+        withCount(count);
+        if (intervalMillis != null) {
+            withIntervalMillis(intervalMillis);
+        }
+        if (ratePerSecond != null) {
+            withRatePerSecond(ratePerSecond);
+        }
+    }
+
+    public RepeatPolicy() {
+    }
+
+    public static RepeatPolicy repeatPolicy() {
+        return new RepeatPolicy();
+    }
+
+    RepeatPolicy copy() {
+        RepeatPolicy copy = new RepeatPolicy();
+        copy.count = count;
+        copy.intervalMillis = intervalMillis;
+        return copy;
+    }
+
+    /**
+     * The total number of times the webhook is sent, or null to keep sending it until cancelled.
+     */
+    public Integer getCount() {
+        return count;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public RepeatPolicy withCount(Integer count) {
+        checkArgument(count == null || count > 0, "Repeat count must be greater than zero");
+        this.count = count;
+        return this;
+    }
+
+    public RepeatPolicy untilCancelled() {
+        this.count = null;
+        return this;
+    }
+
+    public RepeatPolicy withIntervalMillis(long intervalMillis) {
+        checkArgument(intervalMillis > 0, "Repeat interval must be greater than zero");
+        this.intervalMillis = intervalMillis;
+        return this;
+    }
+
+    public RepeatPolicy withRatePerSecond(double ratePerSecond) {
+        checkArgument(ratePerSecond > 0, "Repeat rate must be greater than zero");
+        this.intervalMillis = Math.max(1, Math.round(1000 / ratePerSecond));
+        return this;
+    }
+}
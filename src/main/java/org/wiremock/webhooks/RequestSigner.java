@@ -0,0 +1,140 @@
+package org.wiremock.webhooks;
+
+import wiremock.org.apache.http.Header;
+import wiremock.org.apache.http.message.BasicHeader;
+
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.util.HashMap;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static wiremock.com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Signs webhook bodies as described by a {@link SignaturePolicy}. Creating and keying a
+ * {@link Mac} costs far more than using one, so each thread keeps one keyed Mac per secret and
+ * reuses it, along with buffers for the digest and its hex encoding, so that a signature costs a
+ * MAC computation and the header value string.
+ */
+class RequestSigner {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<Map<SecretKeySpec, ThreadSigner>> SIGNERS = new ThreadLocal<Map<SecretKeySpec, ThreadSigner>>() {
+        @Override
+        protected Map<SecretKeySpec, ThreadSigner> initialValue() {
+            return new HashMap<>();
+        }
+    };
+
+    private final SecretKeySpec key;
+    private final String headerName;
+    private final char[] prefix;
+    private final SignaturePayload payload;
+    private final String timestampHeaderName;
+
+    private RequestSigner(SecretKeySpec key, SignaturePolicy policy) {
+        this.key = key;
+        this.headerName = policy.getHeaderName();
+        this.prefix = policy.getPrefix().toCharArray();
+        this.payload = policy.getPayload();
+        this.timestampHeaderName = policy.getTimestampHeaderName();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the policy has no secret or names an unknown algorithm
+     */
+    static RequestSigner forPolicy(SignaturePolicy policy) {
+        checkArgument(policy.getSecret() != null, "A webhook signature needs a secret");
+        SecretKeySpec key = new SecretKeySpec(policy.getSecret().getBytes(UTF_8), policy.getAlgorithm());
+        RequestSigner signer = new RequestSigner(key, policy);
+        signer.threadSigner();
+        return signer;
+    }
+
+    /**
+     * Whether every request for the same body has the same signature, so it can be worked out once.
+     */
+    boolean isFixed() {
+        return payload == SignaturePayload.BODY;
+    }
+
+    /**
+     * The signature header for a body signed on its own.
+     */
+    Header sign(byte[] body) {
+        ThreadSigner signer = threadSigner();
+        signer.mac.update(body);
+        return new BasicHeader(headerName, signer.finish(prefix));
+    }
+
+    /**
+     * The timestamp and signature headers for a body sent at the given time.
+     */
+    Header[] sign(byte[] body, long nowMillis) {
+        ThreadSigner signer = threadSigner();
+        String timestamp = Long.toString(nowMillis / 1000);
+        signer.mac.update(timestamp.getBytes(UTF_8));
+        signer.mac.update((byte) '.');
+        signer.mac.update(body);
+        return new Header[] {
+            new BasicHeader(timestampHeaderName, timestamp),
+            new BasicHeader(headerName, signer.finish(prefix))
+        };
+    }
+
+    private ThreadSigner threadSigner() {
+        Map<SecretKeySpec, ThreadSigner> signers = SIGNERS.get();
+        ThreadSigner signer = signers.get(key);
+        if (signer == null) {
+            signer = new ThreadSigner(key);
+            signers.put(key, signer);
+        }
+        return signer;
+    }
+
+    private static class ThreadSigner {
+
+        final Mac mac;
+        final byte[] digest;
+        char[] text = new char[0];
+
+        ThreadSigner(SecretKeySpec key) {
+            try {
+                this.mac = Mac.getInstance(key.getAlgorithm());
+                this.mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalArgumentException("Unable to sign webhooks with " + key.getAlgorithm() + ": " + e.getMessage(), e);
+            }
+            this.digest = new byte[mac.getMacLength()];
+        }
+
+        /**
+         * Completes the MAC, which also resets it for the next signature, and returns the prefix
+         * followed by the digest in lower case hex.
+         */
+        String finish(char[] prefix) {
+            try {
+                mac.doFinal(digest, 0);
+            } catch (GeneralSecurityException e) {
+                return throwUnchecked(e, String.class);
+            }
+
+            int length = prefix.length + digest.length * 2;
+            if (text.length < length) {
+                text = new char[length];
+            }
+            System.arraycopy(prefix, 0, text, 0, prefix.length);
+            int position = prefix.length;
+            for (byte b: digest) {
+                text[position++] = HEX_DIGITS[(b >> 4) & 0xf];
+                text[position++] = HEX_DIGITS[b & 0xf];
+            }
+            return new String(text, 0, length);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.wiremock.webhooks;
+
+import wiremock.org.apache.http.HttpEntity;
+import wiremock.org.apache.http.entity.ContentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reads at most a fixed number of bytes of a webhook response and discards the rest through a
+ * reusable per-thread buffer, so large callback responses are never held in memory. The entity is
+ * always fully consumed so that its connection can go back to the pool.
+ */
+class ResponseBodies {
+
+    private static final int DRAIN_BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<byte[]> drainBuffer = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[DRAIN_BUFFER_SIZE];
+        }
+    };
+
+    static String captureAndDrain(HttpEntity entity, int limit) throws IOException {
+        if (entity == null) {
+            return null;
+        }
+
+        try (InputStream content = entity.getContent()) {
+            if (content == null) {
+                return null;
+            }
+
+            byte[] captured = capture(content, limit, entity.getContentLength());
+            drain(content);
+            return captured == null ? null : new String(captured, charsetOf(entity));
+        }
+    }
+
+    private static byte[] capture(InputStream content, int limit, long contentLength) throws IOException {
+        if (limit <= 0) {
+            return null;
+        }
+
+        int size = contentLength >= 0 ? (int) Math.min(limit, contentLength) : limit;
+        byte[] captured = new byte[size];
+        int read = 0;
+        while (read < size) {
+            int count = content.read(captured, read, size - read);
+            if (count == -1) {
+                break;
+            }
+            read += count;
+        }
+
+        return read == size ? captured : Arrays.copyOf(captured, read);
+    }
+
+    private static void drain(InputStream content) throws IOException {
+        byte[] buffer = drainBuffer.get();
+        while (content.read(buffer) != -1) {
+            // discard
+        }
+    }
+
+    private static Charset charsetOf(HttpEntity entity) {
+        try {
+            ContentType contentType = ContentType.get(entity);
+            if (contentType != null && contentType.getCharset() != null) {
+                return contentType.getCharset();
+            }
+        } catch (RuntimeException e) {
+            // fall back to UTF-8 for unparseable content types
+        }
+
+        return UTF_8;
+    }
+}
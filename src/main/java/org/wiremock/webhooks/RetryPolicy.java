@@ -0,0 +1,149 @@
+package org.wiremock.webhooks;
+
+import wiremock.com.fasterxml.jackson.annotation.JsonCreator;
+import wiremock.com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static wiremock.com.google.common.base.Preconditions.checkArgument;
+import static wiremock.com.google.common.collect.Lists.newArrayList;
+
+public class RetryPolicy {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_BASE_DELAY_MILLIS = 100;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10000;
+    public static final double DEFAULT_JITTER = 0.5;
+    public static final List<Integer> DEFAULT_RETRY_ON_STATUS = Arrays.asList(429, 500, 502, 503, 504);
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long baseDelayMillis = DEFAULT_BASE_DELAY_MILLIS;
+    private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+    private double jitter = DEFAULT_JITTER;
+    private List<Integer> retryOnStatus = DEFAULT_RETRY_ON_STATUS;
+
+    @JsonCreator
+    public RetryPolicy(@JsonProperty("maxAttempts") Integer maxAttempts,
+                       @JsonProperty("baseDelayMillis") Long baseDelayMillis,
+                       @JsonProperty("maxDelayMillis") Long maxDelayMillis,
+                       @JsonProperty("jitter") Double jitter,
+                       @JsonProperty("retryOnStatus") List<Integer> retryOnStatus) {
+        if (maxAttempts != null) {
+            withMaxAttempts(maxAttempts);
+        }
+        if (baseDelayMillis != null) {
+            withBaseDelayMillis(baseDelayMillis);
+        }
+        if (maxDelayMillis != null) {
+            withMaxDelayMillis(maxDelayMillis);
+        }
+        if (jitter != null) {
+            withJitter(jitter);
+        }
+        if (retryOnStatus != null) {
+            withRetryOnStatus(retryOnStatus.toArray(new Integer[0]));
+        }
+        checkDelays();
+    }
+
+    public RetryPolicy() {
+    }
+
+    public static RetryPolicy retryPolicy() {
+        return new RetryPolicy();
+    }
+
+    RetryPolicy copy() {
+        RetryPolicy copy = new RetryPolicy();
+        copy.maxAttempts = maxAttempts;
+        copy.baseDelayMillis = baseDelayMillis;
+        copy.maxDelayMillis = maxDelayMillis;
+        copy.jitter = jitter;
+        copy.retryOnStatus = newArrayList(retryOnStatus);
+        return copy;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getBaseDelayMillis() {
+        return baseDelayMillis;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public List<Integer> getRetryOnStatus() {
+        return retryOnStatus;
+    }
+
+    public RetryPolicy withMaxAttempts(int maxAttempts) {
+        checkArgument(maxAttempts > 0, "Retry max attempts must be greater than zero");
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    public RetryPolicy withBaseDelayMillis(long baseDelayMillis) {
+        checkArgument(baseDelayMillis >= 0, "Retry base delay must not be negative");
+        this.baseDelayMillis = baseDelayMillis;
+        return this;
+    }
+
+    public RetryPolicy withMaxDelayMillis(long maxDelayMillis) {
+        checkArgument(maxDelayMillis >= 0, "Retry max delay must not be negative");
+        this.maxDelayMillis = maxDelayMillis;
+        return this;
+    }
+
+    public RetryPolicy withJitter(double jitter) {
+        checkArgument(jitter >= 0 && jitter <= 1, "Retry jitter must be between 0 and 1");
+        this.jitter = jitter;
+        return this;
+    }
+
+    public RetryPolicy withRetryOnStatus(Integer... statuses) {
+        for (Integer status: statuses) {
+            checkArgument(status != null && status >= 300, "Only statuses of 300 and above can be retried, not %s", status);
+        }
+        this.retryOnStatus = newArrayList(statuses);
+        return this;
+    }
+
+    /**
+     * The delays are checked against each other once the policy is complete, rather than by the
+     * setters, so that they can be set in either order.
+     */
+    void checkDelays() {
+        checkArgument(maxDelayMillis >= baseDelayMillis,
+            "Retry max delay (%sms) must not be less than the base delay (%sms)", maxDelayMillis, baseDelayMillis);
+    }
+
+    boolean canRetryAfter(int attempt) {
+        return attempt < maxAttempts;
+    }
+
+    boolean shouldRetryStatus(int status) {
+        return retryOnStatus.contains(status);
+    }
+
+    /**
+     * Exponential backoff capped at maxDelayMillis, with up to the jitter fraction of the delay
+     * randomly taken off so that retries from many webhooks don't all land at the same moment.
+     */
+    long delayMillisAfter(int attempt) {
+        long delay = baseDelayMillis;
+        for (int i = 1; i < attempt && delay < maxDelayMillis; i++) {
+            delay = Math.min(maxDelayMillis, delay * 2);
+        }
+
+        return delay - (long) (delay * jitter * ThreadLocalRandom.current().nextDouble());
+    }
+}
@@ -0,0 +1,30 @@
+package org.wiremock.webhooks;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+class ScheduledExecutorWebhookScheduler implements WebhookScheduler {
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    ScheduledExecutorWebhookScheduler() {
+        this.executor = new ScheduledThreadPoolExecutor(1, DispatchMode.platformThreads("webhook-timer"));
+    }
+
+    @Override
+    public void schedule(Runnable task, long delayMillis) {
+        executor.schedule(task, delayMillis, MILLISECONDS);
+    }
+
+    @Override
+    public int getPendingCount() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int shutdown() {
+        return executor.shutdownNow().size();
+    }
+}
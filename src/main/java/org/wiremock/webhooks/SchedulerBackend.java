@@ -0,0 +1,28 @@
+package org.wiremock.webhooks;
+
+public enum SchedulerBackend {
+
+    /**
+     * A {@link java.util.concurrent.ScheduledThreadPoolExecutor}, with O(log n) scheduling and
+     * precise deadlines.
+     */
+    SCHEDULED_EXECUTOR {
+        @Override
+        WebhookScheduler create(WebhooksOptions options) {
+            return new ScheduledExecutorWebhookScheduler();
+        }
+    },
+
+    /**
+     * A hashed wheel timer, with O(1) scheduling and deadlines honoured to within one tick. Better
+     * suited to very large numbers of pending delayed webhooks.
+     */
+    HASHED_WHEEL {
+        @Override
+        WebhookScheduler create(WebhooksOptions options) {
+            return new HashedWheelWebhookScheduler(options.getTimerTickMillis(), options.getTimerWheelSize());
+        }
+    };
+
+    abstract WebhookScheduler create(WebhooksOptions options);
+}
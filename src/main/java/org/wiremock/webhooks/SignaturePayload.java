@@ -0,0 +1,15 @@
+package org.wiremock.webhooks;
+
+public enum SignaturePayload {
+
+    /**
+     * The body exactly as it is sent.
+     */
+    BODY,
+
+    /**
+     * The Unix time in seconds at which the request is made, a full stop and then the body, with
+     * the time also sent in its own header so that receivers can reject replayed requests.
+     */
+    TIMESTAMP_AND_BODY
+}
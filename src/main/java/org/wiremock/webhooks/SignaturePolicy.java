@@ -0,0 +1,124 @@
+package org.wiremock.webhooks;
+
+import wiremock.com.fasterxml.jackson.annotation.JsonCreator;
+import wiremock.com.fasterxml.jackson.annotation.JsonProperty;
+
+import static wiremock.com.google.common.base.Preconditions.checkNotNull;
+
+public class SignaturePolicy {
+
+    public static final String DEFAULT_ALGORITHM = "HmacSHA256";
+    public static final String DEFAULT_HEADER_NAME = "X-Webhook-Signature";
+    public static final String DEFAULT_TIMESTAMP_HEADER_NAME = "X-Webhook-Timestamp";
+    public static final SignaturePayload DEFAULT_PAYLOAD = SignaturePayload.BODY;
+
+    private String algorithm = DEFAULT_ALGORITHM;
+    private String secret;
+    private String headerName = DEFAULT_HEADER_NAME;
+    private String prefix = "";
+    private SignaturePayload payload = DEFAULT_PAYLOAD;
+    private String timestampHeaderName = DEFAULT_TIMESTAMP_HEADER_NAME;
+
+    @JsonCreator
+    public SignaturePolicy(@JsonProperty("algorithm") String algorithm,
+                           @JsonProperty("secret") String secret,
+                           @JsonProperty("headerName") String headerName,
+                           @JsonProperty("prefix") String prefix,
+                           @JsonProperty("payload") SignaturePayload payload,
+                           @JsonProperty("timestampHeaderName") String timestampHeaderName) {
+        this.secret = secret;
+        if (algorithm != null) {
+            this.algorithm = algorithm;
+        }
+        if (headerName != null) {
+            this.headerName = headerName;
+        }
+        if (prefix != null) {
+            this.prefix = prefix;
+        }
+        if (payload != null) {
+            this.payload = payload;
+        }
+        if (timestampHeaderName != null) {
+            this.timestampHeaderName = timestampHeaderName;
+        }
+    }
+
+    public SignaturePolicy() {
+    }
+
+    public static SignaturePolicy signaturePolicy() {
+        return new SignaturePolicy();
+    }
+
+    SignaturePolicy copy() {
+        SignaturePolicy copy = new SignaturePolicy();
+        copy.algorithm = algorithm;
+        copy.secret = secret;
+        copy.headerName = headerName;
+        copy.prefix = prefix;
+        copy.payload = payload;
+        copy.timestampHeaderName = timestampHeaderName;
+        return copy;
+    }
+
+    /**
+     * The JCE name of the MAC algorithm, such as HmacSHA256 or HmacSHA512.
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public String getHeaderName() {
+        return headerName;
+    }
+
+    /**
+     * Text put in front of the hex encoded signature in the header value, such as "sha256=".
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public SignaturePayload getPayload() {
+        return payload;
+    }
+
+    public String getTimestampHeaderName() {
+        return timestampHeaderName;
+    }
+
+    public SignaturePolicy withAlgorithm(String algorithm) {
+        this.algorithm = checkNotNull(algorithm);
+        return this;
+    }
+
+    public SignaturePolicy withSecret(String secret) {
+        this.secret = checkNotNull(secret);
+        return this;
+    }
+
+    public SignaturePolicy withHeaderName(String headerName) {
+        this.headerName = checkNotNull(headerName);
+        return this;
+    }
+
+    public SignaturePolicy withPrefix(String prefix) {
+        this.prefix = checkNotNull(prefix);
+        return this;
+    }
+
+    public SignaturePolicy withPayload(SignaturePayload payload) {
+        this.payload = checkNotNull(payload);
+        return this;
+    }
+
+    public SignaturePolicy withTimestampHeaderName(String timestampHeaderName) {
+        this.timestampHeaderName = checkNotNull(timestampHeaderName);
+        return this;
+    }
+}
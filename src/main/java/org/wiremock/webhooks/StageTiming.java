@@ -0,0 +1,41 @@
+package org.wiremock.webhooks;
+
+import java.beans.ConstructorProperties;
+
+public class StageTiming {
+
+    private final long count;
+    private final double meanMicros;
+    private final long maxMicros;
+    private final long vetoed;
+    private final long failed;
+
+    @ConstructorProperties({"count", "meanMicros", "maxMicros", "vetoed", "failed"})
+    public StageTiming(long count, double meanMicros, long maxMicros, long vetoed, long failed) {
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.maxMicros = maxMicros;
+        this.vetoed = vetoed;
+        this.failed = failed;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    public long getVetoed() {
+        return vetoed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+}
@@ -0,0 +1,106 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import wiremock.com.github.jknack.handlebars.Handlebars;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled webhooks configured on a single stub, either a lone definition or a group. A group
+ * is ordered, and deduplicated, by the key of the first of its webhooks that has one.
+ */
+class StubWebhooks {
+
+    private final List<WebhookTemplate> templates;
+    private final boolean sequential;
+    private final WebhookTemplate ordered;
+    private final WebhookTemplate deduplicated;
+
+    private StubWebhooks(List<WebhookTemplate> templates, boolean sequential) {
+        this.templates = templates;
+        this.sequential = sequential;
+
+        WebhookTemplate ordered = null;
+        WebhookTemplate deduplicated = null;
+        for (WebhookTemplate template: templates) {
+            if (ordered == null && template.getDefinition().getOrderingKey() != null) {
+                ordered = template;
+            }
+            if (deduplicated == null && template.getDefinition().getDeduplicationKey() != null) {
+                deduplicated = template;
+            }
+        }
+        this.ordered = ordered;
+        this.deduplicated = deduplicated;
+    }
+
+    /**
+     * Checks the raw stub parameters for an ordering key, without parsing them.
+     */
+    static boolean hasOrderingKey(Parameters parameters) {
+        return hasProperty(parameters, "orderingKey");
+    }
+
+    /**
+     * Checks the raw stub parameters for a deduplication key, without parsing them.
+     */
+    static boolean hasDeduplicationKey(Parameters parameters) {
+        return hasProperty(parameters, "deduplicationKey");
+    }
+
+    private static boolean hasProperty(Parameters parameters, String name) {
+        if (parameters.containsKey(name)) {
+            return true;
+        }
+
+        Object webhooks = parameters.get("webhooks");
+        if (webhooks instanceof List) {
+            for (Object webhook: (List<?>) webhooks) {
+                if (webhook instanceof Map && ((Map<?, ?>) webhook).containsKey(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static StubWebhooks compile(Parameters parameters, Handlebars handlebars, boolean templated) {
+        if (!parameters.containsKey("webhooks")) {
+            WebhookTemplate template = WebhookTemplate.compile(parameters.as(WebhookDefinition.class), handlebars, templated);
+            return new StubWebhooks(Collections.singletonList(template), false);
+        }
+
+        WebhookGroup group = parameters.as(WebhookGroup.class);
+        List<WebhookTemplate> templates = new ArrayList<>(group.getWebhooks().size());
+        for (WebhookDefinition definition: group.getWebhooks()) {
+            templates.add(WebhookTemplate.compile(definition, handlebars, templated));
+        }
+        return new StubWebhooks(templates, group.isSequential());
+    }
+
+    List<WebhookTemplate> getTemplates() {
+        return templates;
+    }
+
+    boolean isSequential() {
+        return sequential;
+    }
+
+    /**
+     * The ordering key for the serve event, or null if the webhooks are unordered.
+     */
+    String renderOrderingKey(ServeEvent serveEvent) {
+        return ordered == null ? null : ordered.renderOrderingKey(serveEvent);
+    }
+
+    /**
+     * The deduplication key for the serve event, or null if the webhooks are never deduplicated.
+     */
+    String renderDeduplicationKey(ServeEvent serveEvent) {
+        return deduplicated == null ? null : deduplicated.renderDeduplicationKey(serveEvent);
+    }
+}
@@ -0,0 +1,73 @@
+package org.wiremock.webhooks;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A token bucket combined with a cap on in-flight deliveries for a single target. A delivery held
+ * back by the bucket reserves its token straight away, taking the bucket below zero, and is told
+ * how long until that token has been earned, so a backlog of throttled deliveries wakes up spread
+ * out at the rate rather than all at once. Deliveries held back by the in-flight cap are parked
+ * here and handed back as earlier deliveries complete.
+ */
+class TargetLimiter {
+
+    static final long ACQUIRED = 0;
+    static final long PARKED = -1;
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final int maxInFlight;
+    private final Queue<WebhookRunner> parked = new ArrayDeque<>();
+
+    private double tokens;
+    private long lastRefillNanos;
+    private int inFlight;
+
+    TargetLimiter(RateLimit rateLimit, long nowNanos) {
+        this.permitsPerNano = rateLimit.getPermitsPerSecond() / SECONDS.toNanos(1);
+        this.burst = rateLimit.getBurst();
+        this.maxInFlight = rateLimit.getMaxInFlight();
+        this.tokens = burst;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Returns {@link #ACQUIRED} if the delivery may go ahead, {@link #PARKED} if it has been parked
+     * until another delivery completes, or otherwise the number of milliseconds until the token
+     * reserved for it will have been earned, after which it should try again holding that token.
+     */
+    synchronized long tryAcquire(WebhookRunner runner, boolean holdsToken, long nowNanos) {
+        if (maxInFlight > 0 && inFlight >= maxInFlight) {
+            parked.add(runner);
+            return PARKED;
+        }
+
+        if (permitsPerNano > 0 && !holdsToken) {
+            tokens = Math.min(burst, tokens + (nowNanos - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = nowNanos;
+            tokens -= 1;
+            if (tokens < 0) {
+                return Math.max(1, NANOSECONDS.toMillis((long) Math.ceil(-tokens / permitsPerNano)));
+            }
+        }
+
+        inFlight++;
+        return ACQUIRED;
+    }
+
+    /**
+     * Returns a parked delivery that should now try again, if there is one.
+     */
+    synchronized WebhookRunner release() {
+        inFlight--;
+        return parked.poll();
+    }
+
+    synchronized int getParkedCount() {
+        return parked.size();
+    }
+}
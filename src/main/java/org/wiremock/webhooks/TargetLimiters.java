@@ -0,0 +1,96 @@
+package org.wiremock.webhooks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+class TargetLimiters {
+
+    private final RateLimit defaultRateLimit;
+    private final Map<String, RateLimit> targetRateLimits;
+    private final ConcurrentMap<String, TargetLimiter> limiters = new ConcurrentHashMap<>();
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final Set<WebhookRunner> waiting = Collections.newSetFromMap(new ConcurrentHashMap<WebhookRunner, Boolean>());
+    private final LatencyHistogram throttleWait = new LatencyHistogram();
+
+    TargetLimiters(RateLimit defaultRateLimit, Map<String, RateLimit> targetRateLimits) {
+        this.defaultRateLimit = defaultRateLimit;
+        this.targetRateLimits = new HashMap<>(targetRateLimits);
+    }
+
+    /**
+     * A limit on the definition takes precedence over one configured for its target, which in
+     * turn takes precedence over the default. Definitions with their own limit share a limiter
+     * with other webhooks to the target that have the same limit, and with nothing else.
+     */
+    TargetLimiter forTarget(String target, RateLimit definitionRateLimit) {
+        if (definitionRateLimit != null) {
+            return limiterFor(target + " " + describe(definitionRateLimit), definitionRateLimit);
+        }
+
+        RateLimit rateLimit = targetRateLimits.get(target);
+        if (rateLimit == null) {
+            rateLimit = defaultRateLimit;
+        }
+        return rateLimit == null ? null : limiterFor(target, rateLimit);
+    }
+
+    private TargetLimiter limiterFor(String key, RateLimit rateLimit) {
+        TargetLimiter limiter = limiters.get(key);
+        if (limiter != null) {
+            return limiter;
+        }
+
+        TargetLimiter newLimiter = new TargetLimiter(rateLimit, System.nanoTime());
+        limiter = limiters.putIfAbsent(key, newLimiter);
+        return limiter != null ? limiter : newLimiter;
+    }
+
+    private static String describe(RateLimit rateLimit) {
+        return rateLimit.getPermitsPerSecond() + "/s burst " + rateLimit.getBurst() + " in flight " + rateLimit.getMaxInFlight();
+    }
+
+    void recordThrottled(WebhookRunner runner) {
+        throttledCount.incrementAndGet();
+        waiting.add(runner);
+    }
+
+    void recordReleased(WebhookRunner runner, long waitNanos) {
+        waiting.remove(runner);
+        throttleWait.record(NANOSECONDS.toMillis(waitNanos));
+    }
+
+    /**
+     * Stops counting a runner that will never get its permit, because the dispatcher could no
+     * longer take it back. Runners are tracked rather than counted so that this can safely
+     * happen more than once.
+     */
+    void recordAbandoned(WebhookRunner runner) {
+        waiting.remove(runner);
+    }
+
+    /**
+     * Once the dispatcher has shut down, nothing still waiting for a permit will be sent.
+     */
+    void abandonAll() {
+        waiting.clear();
+    }
+
+    long getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    int getWaitingCount() {
+        return waiting.size();
+    }
+
+    LatencySnapshot getThrottleWait() {
+        return throttleWait.snapshot();
+    }
+}
@@ -0,0 +1,124 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.common.Notifier;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Coalesces webhooks sharing a method, URL and batch key into a single request. A batch is sent
+ * as soon as it reaches its maximum size, or once the linger time has passed since its first
+ * event, whichever comes first. The first event's definition supplies everything but the body.
+ */
+class WebhookBatcher {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ConcurrentMap<String, Batch> batches = new ConcurrentHashMap<>();
+
+    void add(UUID serveEventId, WebhookDefinition definition, DispatchContext context, Notifier notifier) {
+        BatchPolicy policy = definition.getBatch();
+        String key = definition.getMethod() + " " + definition.getUrl() + " " + policy.getKey();
+        context.metrics.batched();
+
+        while (true) {
+            Batch batch = batches.get(key);
+            if (batch == null) {
+                Batch newBatch = new Batch(key, serveEventId, definition, context, notifier);
+                batch = batches.putIfAbsent(key, newBatch);
+                if (batch == null) {
+                    batch = newBatch;
+                }
+            }
+
+            boolean first;
+            boolean full;
+            synchronized (batch) {
+                if (batch.closed) {
+                    continue;
+                }
+
+                batch.append(definition.getBinaryBody());
+                first = batch.size == 1;
+                full = batch.size >= policy.getMaxSize();
+                if (full) {
+                    close(batch);
+                }
+            }
+
+            if (full) {
+                batch.send();
+            } else if (first && !context.dispatcher.schedule(batch, policy.getLingerMillis(), MILLISECONDS)) {
+                // Nothing else would close the batch, so send it as it is
+                batch.run();
+            }
+            return;
+        }
+    }
+
+    private void close(Batch batch) {
+        batch.closed = true;
+        batches.remove(batch.key, batch);
+    }
+
+    private class Batch implements Runnable {
+
+        private final String key;
+        private final UUID serveEventId;
+        private final WebhookDefinition definition;
+        private final DispatchContext context;
+        private final Notifier notifier;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private int size;
+        private boolean closed;
+
+        Batch(String key, UUID serveEventId, WebhookDefinition definition, DispatchContext context, Notifier notifier) {
+            this.key = key;
+            this.serveEventId = serveEventId;
+            this.definition = definition;
+            this.context = context;
+            this.notifier = notifier;
+        }
+
+        /**
+         * @param event the event's body, or null if it has none, in which case it adds nothing
+         *              but a separator
+         */
+        void append(byte[] event) {
+            BatchPolicy policy = definition.getBatch();
+            write(size == 0 ? policy.getPrefix() : policy.getSeparator());
+            if (event != null) {
+                body.write(event, 0, event.length);
+            }
+            size++;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                close(this);
+            }
+            send();
+        }
+
+        void send() {
+            write(definition.getBatch().getSuffix());
+            WebhookDefinition batchDefinition = definition.copy().withBinaryBody(body.toByteArray());
+            notifier.info(String.format("Sending batch of %d webhooks to %s", size, definition.getUrl()));
+            new WebhookRunner(serveEventId, batchDefinition, WebhookRequestTemplate.compile(batchDefinition), context, notifier, 0).schedule();
+        }
+
+        private void write(String text) {
+            byte[] bytes = text.getBytes(UTF_8);
+            body.write(bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.common.Notifier;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sends a sequence of webhooks one after the other, each once the previous one has been
+ * delivered. Each step is handed to the same dispatch path as any other webhook, so it keeps its
+ * precompiled request, repeat policy and place in the durable queue. The chain stops at the first
+ * webhook that fails after any retries, and the chain's own completion, if any, is told once it
+ * has stopped or finished.
+ */
+class WebhookChain implements WebhookCompletion {
+
+    /**
+     * Dispatches a single step, telling the completion once it has been delivered or given up on.
+     */
+    interface Dispatch {
+
+        void dispatch(UUID serveEventId, WebhookTemplate template, WebhookDefinition definition, Notifier notifier, WebhookCompletion completion);
+    }
+
+    /**
+     * A rendered webhook and the template it came from.
+     */
+    static class Step {
+
+        final WebhookTemplate template;
+        final WebhookDefinition definition;
+
+        Step(WebhookTemplate template, WebhookDefinition definition) {
+            this.template = template;
+            this.definition = definition;
+        }
+    }
+
+    private final UUID serveEventId;
+    private final List<Step> steps;
+    private final int index;
+    private final Dispatch dispatch;
+    private final Notifier notifier;
+    private final WebhookCompletion completion;
+
+    WebhookChain(UUID serveEventId, List<Step> steps, Dispatch dispatch, Notifier notifier, WebhookCompletion completion) {
+        this(serveEventId, steps, 0, dispatch, notifier, completion);
+    }
+
+    private WebhookChain(UUID serveEventId, List<Step> steps, int index, Dispatch dispatch, Notifier notifier, WebhookCompletion completion) {
+        this.serveEventId = serveEventId;
+        this.steps = steps;
+        this.index = index;
+        this.dispatch = dispatch;
+        this.notifier = notifier;
+        this.completion = completion;
+    }
+
+    void start() {
+        Step step = steps.get(index);
+        try {
+            dispatch.dispatch(serveEventId, step.template, step.definition, notifier, this);
+        } catch (RuntimeException e) {
+            notifier.error(String.format("Unable to send webhook %d of %d in sequence, not sending the rest: %s",
+                index + 1,
+                steps.size(),
+                e.getMessage()
+            ));
+            finished(false);
+        }
+    }
+
+    @Override
+    public void completed(boolean delivered) {
+        if (!delivered) {
+            notifier.error(String.format("Webhook %d of %d in sequence failed, not sending the rest",
+                index + 1,
+                steps.size()
+            ));
+            finished(false);
+            return;
+        }
+
+        if (index + 1 < steps.size()) {
+            new WebhookChain(serveEventId, steps, index + 1, dispatch, notifier, completion).start();
+        } else {
+            finished(true);
+        }
+    }
+
+    private void finished(boolean delivered) {
+        if (completion != null) {
+            completion.completed(delivered);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.wiremock.webhooks;
+
+/**
+ * Told the final outcome of a webhook once it has been delivered or given up on, after any
+ * retries.
+ */
+interface WebhookCompletion {
+
+    void completed(boolean delivered);
+}
@@ -4,46 +4,128 @@ import wiremock.com.fasterxml.jackson.annotation.JsonCreator;
 import wiremock.com.fasterxml.jackson.annotation.JsonIgnore;
 import wiremock.com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.tomakehurst.wiremock.http.Body;
+import com.github.tomakehurst.wiremock.http.ChunkedDribbleDelay;
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
 import com.github.tomakehurst.wiremock.http.HttpHeader;
 import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.LogNormal;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.UniformDistribution;
 
 import java.net.URI;
 import java.util.List;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static wiremock.com.google.common.collect.Lists.newArrayList;
 
 public class WebhookDefinition {
     
     private RequestMethod method;
-    private URI url;
+    private String url;
+    private URI uri;
     private List<HttpHeader> headers;
     private Body body = Body.none();
     private String delayInSeconds;
+    private long baseDelayMillis;
+    private Integer fixedDelayMilliseconds;
+    private DelayDistribution delayDistribution;
+    private ChunkedDribbleDelay chunkedDribbleDelay;
+    private RetryPolicy retry;
+    private BatchPolicy batch;
+    private RateLimit rateLimit;
+    private String orderingKey;
+    private RepeatPolicy repeat;
+    private String deduplicationKey;
+    private SignaturePolicy signature;
 
     @JsonCreator
     public WebhookDefinition(@JsonProperty("method") RequestMethod method,
-                             @JsonProperty("url") URI url,
+                             @JsonProperty("url") String url,
                              @JsonProperty("headers") HttpHeaders headers,
                              @JsonProperty("body") String body,
                              @JsonProperty("base64Body") String base64Body,
-                             @JsonProperty("delayInSeconds") String delayInSeconds) {
+                             @JsonProperty("delayInSeconds") String delayInSeconds,
+                             @JsonProperty("fixedDelayMilliseconds") Integer fixedDelayMilliseconds,
+                             @JsonProperty("delayDistribution") DelayDistribution delayDistribution,
+                             @JsonProperty("chunkedDribbleDelay") ChunkedDribbleDelay chunkedDribbleDelay,
+                             @JsonProperty("retry") RetryPolicy retry,
+                             @JsonProperty("batch") BatchPolicy batch,
+                             @JsonProperty("rateLimit") RateLimit rateLimit,
+                             @JsonProperty("orderingKey") String orderingKey,
+                             @JsonProperty("repeat") RepeatPolicy repeat,
+                             @JsonProperty("deduplicationKey") String deduplicationKey,
+                             @JsonProperty("signature") SignaturePolicy signature) {
         this.method = method;
-        this.url = url;
+        withUrl(url);
         this.headers = newArrayList(headers.all());
         this.body = Body.fromOneOf(null, body, null, base64Body);
 
         this.delayInSeconds = delayInSeconds;
+        this.fixedDelayMilliseconds = fixedDelayMilliseconds;
+        this.delayDistribution = delayDistribution;
+        this.chunkedDribbleDelay = chunkedDribbleDelay;
+        this.retry = retry;
+        this.batch = batch;
+        this.rateLimit = rateLimit;
+        this.orderingKey = orderingKey;
+        this.repeat = repeat;
+        this.deduplicationKey = deduplicationKey;
+        this.signature = signature;
+        this.baseDelayMillis = parseBaseDelayMillis();
+    }
+
+    public WebhookDefinition(RequestMethod method,
+                             URI url,
+                             HttpHeaders headers,
+                             String body,
+                             String base64Body,
+                             String delayInSeconds) {
+        this(method, url == null ? null : url.toString(), headers, body, base64Body, delayInSeconds,
+            null, null, null, null, null, null, null, null, null, null);
     }
 
     public WebhookDefinition() {
     }
 
+    /**
+     * Copies the definition along with its policies, so that changing the copy leaves this definition as it was.
+     */
+    public WebhookDefinition copy() {
+        WebhookDefinition copy = new WebhookDefinition();
+        copy.method = method;
+        copy.url = url;
+        copy.uri = uri;
+        copy.headers = headers == null ? null : newArrayList(headers);
+        copy.body = body;
+        copy.delayInSeconds = delayInSeconds;
+        copy.baseDelayMillis = baseDelayMillis;
+        copy.fixedDelayMilliseconds = fixedDelayMilliseconds;
+        copy.delayDistribution = delayDistribution;
+        copy.chunkedDribbleDelay = chunkedDribbleDelay;
+        copy.retry = retry == null ? null : retry.copy();
+        copy.batch = batch == null ? null : batch.copy();
+        copy.rateLimit = rateLimit == null ? null : rateLimit.copy();
+        copy.orderingKey = orderingKey;
+        copy.repeat = repeat == null ? null : repeat.copy();
+        copy.deduplicationKey = deduplicationKey;
+        copy.signature = signature == null ? null : signature.copy();
+        return copy;
+    }
+
     public RequestMethod getMethod() {
         return method;
     }
 
+    @JsonIgnore
     public URI getUrl() {
+        return uri != null ? uri : URI.create(url);
+    }
+
+    /**
+     * The URL as configured, which may be a template.
+     */
+    @JsonProperty("url")
+    String getUrlTemplate() {
         return url;
     }
 
@@ -59,6 +141,10 @@ public class WebhookDefinition {
         return body.isBinary() ? null : body.asString();
     }
 
+    boolean hasTextBody() {
+        return body.isPresent() && !body.isBinary();
+    }
+
     @JsonIgnore
     public byte[] getBinaryBody() {
         return body.asBytes();
@@ -73,13 +159,83 @@ public class WebhookDefinition {
         return this.delayInSeconds;
     }
 
+    public Integer getFixedDelayMilliseconds() {
+        return fixedDelayMilliseconds;
+    }
+
+    public DelayDistribution getDelayDistribution() {
+        return delayDistribution;
+    }
+
+    public ChunkedDribbleDelay getChunkedDribbleDelay() {
+        return chunkedDribbleDelay;
+    }
+
+    long sampleDelayMillis() {
+        return delayDistribution == null
+            ? baseDelayMillis
+            : baseDelayMillis + delayDistribution.sampleMillis();
+    }
+
+    private long parseBaseDelayMillis() {
+        long millis = fixedDelayMilliseconds == null ? 0 : fixedDelayMilliseconds;
+        if (delayInSeconds != null && !delayInSeconds.isEmpty()) {
+            millis += SECONDS.toMillis(Long.parseLong(delayInSeconds));
+        }
+        return millis;
+    }
+
+    public RetryPolicy getRetry() {
+        return retry;
+    }
+
+    public BatchPolicy getBatch() {
+        return batch;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public String getOrderingKey() {
+        return orderingKey;
+    }
+
+    public RepeatPolicy getRepeat() {
+        return repeat;
+    }
+
+    public String getDeduplicationKey() {
+        return deduplicationKey;
+    }
+
+    public SignaturePolicy getSignature() {
+        return signature;
+    }
+
+    String targetKey() {
+        URI uri = getUrl();
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+
+        return uri.getHost() + ":" + port;
+    }
+
     public WebhookDefinition withUrl(URI url) {
-        this.url = url;
+        this.url = url == null ? null : url.toString();
+        this.uri = url;
         return this;
     }
 
+    /**
+     * Accepts a Handlebars template as well as a plain URL. A template is only parsed as a URI once
+     * it has been rendered.
+     */
     public WebhookDefinition withUrl(String url) {
-        withUrl(URI.create(url));
+        this.url = url;
+        this.uri = url == null || WebhookTemplate.isTemplate(url) ? null : URI.create(url);
         return this;
     }
 
@@ -109,7 +265,80 @@ public class WebhookDefinition {
 
     public WebhookDefinition withDelayInSeconds(String delayInSeconds) {
         this.delayInSeconds = delayInSeconds;
+        this.baseDelayMillis = parseBaseDelayMillis();
+        return this;
+    }
+
+    public WebhookDefinition withFixedDelay(Integer milliseconds) {
+        this.fixedDelayMilliseconds = milliseconds;
+        this.baseDelayMillis = parseBaseDelayMillis();
         return this;
     }
 
+    public WebhookDefinition withRandomDelay(DelayDistribution distribution) {
+        this.delayDistribution = distribution;
+        return this;
+    }
+
+    public WebhookDefinition withUniformRandomDelay(int lowerMilliseconds, int upperMilliseconds) {
+        return withRandomDelay(new UniformDistribution(lowerMilliseconds, upperMilliseconds));
+    }
+
+    public WebhookDefinition withLogNormalRandomDelay(double medianMilliseconds, double sigma) {
+        return withRandomDelay(new LogNormal(medianMilliseconds, sigma));
+    }
+
+    public WebhookDefinition withChunkedDribbleDelay(int numberOfChunks, int totalDurationMilliseconds) {
+        this.chunkedDribbleDelay = new ChunkedDribbleDelay(numberOfChunks, totalDurationMilliseconds);
+        return this;
+    }
+
+    public WebhookDefinition withRetry(RetryPolicy retry) {
+        if (retry != null) {
+            retry.checkDelays();
+        }
+        this.retry = retry;
+        return this;
+    }
+
+    public WebhookDefinition withBatch(BatchPolicy batch) {
+        this.batch = batch;
+        return this;
+    }
+
+    public WebhookDefinition withRateLimit(RateLimit rateLimit) {
+        this.rateLimit = rateLimit;
+        return this;
+    }
+
+    /**
+     * Webhooks with the same ordering key, which may be a template, are delivered one at a time in
+     * the order their requests were served.
+     */
+    public WebhookDefinition withOrderingKey(String orderingKey) {
+        this.orderingKey = orderingKey;
+        return this;
+    }
+
+    public WebhookDefinition withRepeat(RepeatPolicy repeat) {
+        this.repeat = repeat;
+        return this;
+    }
+
+    /**
+     * Serve events of the same stub that render the same deduplication key, which may be a
+     * template, within the deduplication window only fire the webhook once.
+     */
+    public WebhookDefinition withDeduplicationKey(String deduplicationKey) {
+        this.deduplicationKey = deduplicationKey;
+        return this;
+    }
+
+    /**
+     * Signs the body of every request sent for this webhook with an HMAC, sent in a header.
+     */
+    public WebhookDefinition withSignature(SignaturePolicy signature) {
+        this.signature = signature;
+        return this;
+    }
 }
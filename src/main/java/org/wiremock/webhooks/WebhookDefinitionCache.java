@@ -0,0 +1,99 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import wiremock.com.github.jknack.handlebars.Handlebars;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the parsed and compiled webhook definitions for each stub so that the parameters only need
+ * to be deserialised, and any templates compiled, the first time the stub is served. An entry is
+ * only reused while the stub still carries the exact same parameters instance it was parsed from.
+ */
+class WebhookDefinitionCache {
+
+    private final Handlebars handlebars;
+    private final boolean templated;
+    private final ConcurrentMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param templated whether webhook URLs, headers and bodies are templates; ordering and
+     *                  deduplication keys always are
+     */
+    WebhookDefinitionCache(Handlebars handlebars, boolean templated) {
+        this.handlebars = handlebars;
+        this.templated = templated;
+    }
+
+    StubWebhooks get(ServeEvent serveEvent, Parameters parameters) {
+        StubMapping stubMapping = serveEvent.getStubMapping();
+        if (stubMapping == null || stubMapping.getId() == null) {
+            return compile(parameters);
+        }
+
+        Entry entry = entries.get(stubMapping.getId());
+        if (entry != null && entry.parameters == parameters) {
+            return entry.webhooks;
+        }
+
+        StubWebhooks webhooks = compile(parameters);
+        entries.put(stubMapping.getId(), new Entry(parameters, webhooks));
+        return webhooks;
+    }
+
+    private StubWebhooks compile(Parameters parameters) {
+        return StubWebhooks.compile(parameters, handlebars, templated);
+    }
+
+    /**
+     * Compiles an ordered or deduplicated stub's webhooks as soon as it is created, since its keys
+     * are rendered on the thread serving the stub.
+     */
+    void precompileKeyed(StubMapping stubMapping) {
+        Parameters parameters = stubMapping.getPostServeActions() == null
+            ? null
+            : stubMapping.getPostServeActions().get("webhook");
+        if (stubMapping.getId() == null || parameters == null || !isKeyed(parameters)) {
+            return;
+        }
+
+        try {
+            entries.put(stubMapping.getId(), new Entry(parameters, compile(parameters)));
+        } catch (RuntimeException ignored) {
+            // Left to fail, and be reported, when the stub is served
+        }
+    }
+
+    private static boolean isKeyed(Parameters parameters) {
+        return StubWebhooks.hasOrderingKey(parameters) || StubWebhooks.hasDeduplicationKey(parameters);
+    }
+
+    void invalidate(StubMapping stubMapping) {
+        if (stubMapping.getId() != null) {
+            entries.remove(stubMapping.getId());
+        }
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+
+        final Parameters parameters;
+        final StubWebhooks webhooks;
+
+        Entry(Parameters parameters, StubWebhooks webhooks) {
+            this.parameters = parameters;
+            this.webhooks = webhooks;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.wiremock.webhooks;
+
+import java.util.List;
+
+public class WebhookDeliveriesResult {
+
+    private final List<WebhookDelivery> deliveries;
+    private final int offset;
+    private final int limit;
+
+    public WebhookDeliveriesResult(List<WebhookDelivery> deliveries, int offset, int limit) {
+        this.deliveries = deliveries;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    public List<WebhookDelivery> getDeliveries() {
+        return deliveries;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
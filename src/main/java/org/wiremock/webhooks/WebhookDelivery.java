@@ -0,0 +1,82 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+
+import java.net.URI;
+import java.util.UUID;
+
+public class WebhookDelivery {
+
+    private final UUID serveEventId;
+    private final RequestMethod method;
+    private final URI url;
+    private final String target;
+    private final int attempt;
+    private final Integer status;
+    private final String error;
+    private final long latencyMillis;
+    private final long timestamp;
+    private final String response;
+
+    public WebhookDelivery(UUID serveEventId,
+                           RequestMethod method,
+                           URI url,
+                           String target,
+                           int attempt,
+                           Integer status,
+                           String error,
+                           long latencyMillis,
+                           long timestamp,
+                           String response) {
+        this.serveEventId = serveEventId;
+        this.method = method;
+        this.url = url;
+        this.target = target;
+        this.attempt = attempt;
+        this.status = status;
+        this.error = error;
+        this.latencyMillis = latencyMillis;
+        this.timestamp = timestamp;
+        this.response = response;
+    }
+
+    public UUID getServeEventId() {
+        return serveEventId;
+    }
+
+    public RequestMethod getMethod() {
+        return method;
+    }
+
+    public URI getUrl() {
+        return url;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+}
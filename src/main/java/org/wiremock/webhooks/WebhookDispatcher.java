@@ -0,0 +1,320 @@
+package org.wiremock.webhooks;
+
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Delayed webhooks wait in a {@link WebhookScheduler}, which only hands them over to a fixed size
+ * worker pool once they are due. Ordered webhooks are additionally funnelled through
+ * {@link DeliveryLanes}.
+ * <p>
+ * The {@link RejectionPolicy} is only applied when work for a newly served request is submitted,
+ * on the thread that served it: it is rejected while the queue, counting webhooks waiting for
+ * their ordering lane, is at capacity or while the timer holds its capacity of delayed webhooks.
+ * Work that has already been accepted, such as due delayed webhooks, retries, throttled webhooks
+ * resuming and the next webhook in a lane, is scheduled past the policy, so it is never held up
+ * by it and never holds up a worker or the timer thread. Such continuations are not counted
+ * against the queue capacity; each belongs to a webhook already accepted, so there are never
+ * more of them than webhooks in flight. The timer's capacity is enforced for all delayed work
+ * though: anything that would take it past its capacity is dropped and counted. Once shut down,
+ * anything else handed to the dispatcher is dropped and counted as abandoned.
+ */
+class WebhookDispatcher {
+
+    private static final long IDLE_WORKER_KEEP_ALIVE_SECONDS = 60;
+
+    private final WebhookScheduler timer;
+    private final ThreadPoolExecutor workers;
+    private final DeliveryLanes lanes;
+    private final int queueCapacity;
+    private final int delayedCapacity;
+    private final RejectionPolicy rejectionPolicy;
+    private final Object capacity = new Object();
+    private final AtomicInteger waitingForCapacity = new AtomicInteger();
+    private final ThreadLocal<Boolean> runningForCaller = new ThreadLocal<>();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong droppedDelayedCount = new AtomicLong();
+    private final AtomicInteger abandonedCount = new AtomicInteger();
+
+    WebhookDispatcher(WebhooksOptions options) {
+        this.timer = options.getSchedulerBackend().create(options);
+        this.queueCapacity = options.getQueueCapacity();
+        this.delayedCapacity = options.getDelayedCapacity();
+        this.rejectionPolicy = options.getRejectionPolicy();
+        int poolSize = options.getDispatchMode().poolSize(options.getPoolSize());
+        this.workers = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            IDLE_WORKER_KEEP_ALIVE_SECONDS,
+            SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            options.getDispatchMode().threadFactory("webhook-dispatch"),
+            new AbandoningRejectionHandler(abandonedCount)
+        ) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable task) {
+                signalCapacity();
+            }
+        };
+        if (options.getDispatchMode() == DispatchMode.VIRTUAL_THREADS) {
+            workers.allowCoreThreadTimeOut(true);
+        }
+        this.lanes = new DeliveryLanes(this, options.getOrderingLanes());
+    }
+
+    DeliveryLanes.Lane laneFor(String orderingKey) {
+        return lanes.forKey(orderingKey);
+    }
+
+    /**
+     * Accepts the work for a newly served request, subject to the rejection policy.
+     */
+    void submit(Runnable task) {
+        if (admit(task, false)) {
+            workers.execute(new NewTask(task));
+        }
+    }
+
+    /**
+     * Accepts the work for a newly served request onto its ordering lane, subject to the rejection
+     * policy.
+     */
+    void submit(DeliveryLanes.Lane lane, DeliveryLanes.Task task) {
+        if (admit(task, true)) {
+            lane.submit(task);
+        }
+    }
+
+    private boolean admit(Runnable task, boolean ordered) {
+        if (workers.isShutdown()) {
+            abandonedCount.incrementAndGet();
+            return false;
+        }
+
+        if (!isFull()) {
+            return true;
+        }
+
+        rejectedCount.incrementAndGet();
+        return rejectionPolicy.admit(this, task, ordered);
+    }
+
+    /**
+     * Schedules work that has already been accepted, past the rejection policy. Returns false if
+     * it was dropped instead, either because the dispatcher has been shut down or because it is
+     * delayed and the timer is at capacity.
+     */
+    boolean schedule(Runnable task, long delay, TimeUnit unit) {
+        if (workers.isShutdown()) {
+            abandonedCount.incrementAndGet();
+            return false;
+        }
+
+        if (delay <= 0) {
+            if (runningForCaller.get() != null) {
+                // Sent straight away by work the serving thread took on, so sent there too. Anything
+                // that in turn schedules goes to the workers.
+                runningForCaller.remove();
+                try {
+                    task.run();
+                } finally {
+                    runningForCaller.set(Boolean.TRUE);
+                }
+                return true;
+            }
+
+            workers.execute(task);
+            return true;
+        }
+
+        if (timer.getPendingCount() >= delayedCapacity) {
+            droppedDelayedCount.incrementAndGet();
+            return false;
+        }
+
+        try {
+            timer.schedule(new TimerHandOff(task), unit.toMillis(delay));
+            return true;
+        } catch (RejectedExecutionException e) {
+            abandonedCount.incrementAndGet();
+            return false;
+        }
+    }
+
+    private boolean isFull() {
+        return workers.getQueue().size() + lanes.getWaitingCount() >= queueCapacity
+            || timer.getPendingCount() >= delayedCapacity;
+    }
+
+    /**
+     * Drops the longest queued unordered serve event to make room, returning false if there was
+     * none. Accepted work, including ordered serve events that hold their lane, is never dropped.
+     */
+    boolean dropOldest() {
+        Iterator<Runnable> queued = workers.getQueue().iterator();
+        while (queued.hasNext()) {
+            if (queued.next() instanceof NewTask) {
+                queued.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the task on the calling thread, along with any webhook it sends without a delay.
+     */
+    void runForCaller(Runnable task) {
+        runningForCaller.set(Boolean.TRUE);
+        try {
+            task.run();
+        } finally {
+            runningForCaller.remove();
+        }
+    }
+
+    /**
+     * Holds the calling thread until there is room, woken as workers take tasks off the queue.
+     * Returns false if the dispatcher was shut down, or the thread interrupted, while waiting.
+     */
+    boolean awaitCapacity() {
+        synchronized (capacity) {
+            waitingForCapacity.incrementAndGet();
+            try {
+                while (isFull()) {
+                    if (workers.isShutdown()) {
+                        return false;
+                    }
+                    capacity.wait();
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                waitingForCapacity.decrementAndGet();
+            }
+        }
+    }
+
+    private void signalCapacity() {
+        if (waitingForCapacity.get() > 0) {
+            synchronized (capacity) {
+                capacity.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Stops accepting webhooks and discards those still waiting on the timer, then gives the
+     * workers until the deadline to finish the webhooks they are sending or have queued. Anything
+     * left after that is interrupted.
+     */
+    WebhookShutdownReport shutdown(long timeout, TimeUnit unit) {
+        int waitingForLane = lanes.clear();
+        int delayed = timer.shutdown();
+        workers.shutdown();
+        signalCapacity();
+
+        boolean drained;
+        try {
+            drained = workers.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drained = false;
+        }
+
+        int inFlight = 0;
+        int queued = 0;
+        if (!drained) {
+            queued = workers.shutdownNow().size();
+            inFlight = workers.getActiveCount();
+        }
+        return new WebhookShutdownReport(delayed + abandonedCount.get(), queued + waitingForLane, inFlight);
+    }
+
+    boolean isShutdown() {
+        return workers.isShutdown();
+    }
+
+    long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    long getDroppedDelayedCount() {
+        return droppedDelayedCount.get();
+    }
+
+    int getQueueDepth() {
+        return workers.getQueue().size();
+    }
+
+    int getActiveCount() {
+        return workers.getActiveCount();
+    }
+
+    int getPendingDelayedCount() {
+        return timer.getPendingCount();
+    }
+
+    int getOrderedWaitingCount() {
+        return lanes.getWaitingCount();
+    }
+
+    private class TimerHandOff implements Runnable {
+
+        private final Runnable task;
+
+        TimerHandOff(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            workers.execute(task);
+        }
+    }
+
+    /**
+     * The work for a newly served request that hasn't been started yet, the only kind of queued
+     * task the rejection policy may drop.
+     */
+    private static class NewTask implements Runnable {
+
+        private final Runnable task;
+
+        NewTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    /**
+     * The worker queue is unbounded, so tasks are only rejected once the pool has been shut down.
+     */
+    private static class AbandoningRejectionHandler implements RejectedExecutionHandler {
+
+        private final AtomicInteger abandonedCount;
+
+        AbandoningRejectionHandler(AtomicInteger abandonedCount) {
+            this.abandonedCount = abandonedCount;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            abandonedCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.wiremock.webhooks;
+
+import wiremock.com.fasterxml.jackson.annotation.JsonCreator;
+import wiremock.com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static wiremock.com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Several webhooks fired by one stub. They are sent in parallel unless the group is sequential, in
+ * which case each is only sent once the one before it has been delivered.
+ */
+public class WebhookGroup {
+
+    private List<WebhookDefinition> webhooks;
+    private boolean sequential;
+
+    @JsonCreator
+    public WebhookGroup(@JsonProperty("webhooks") List<WebhookDefinition> webhooks,
+                        @JsonProperty("sequential") Boolean sequential) {
+        this.webhooks = webhooks == null ? new ArrayList<WebhookDefinition>() : newArrayList(webhooks);
+        this.sequential = sequential != null && sequential;
+    }
+
+    public WebhookGroup(WebhookDefinition... webhooks) {
+        this(newArrayList(webhooks), false);
+    }
+
+    public List<WebhookDefinition> getWebhooks() {
+        return webhooks;
+    }
+
+    public boolean isSequential() {
+        return sequential;
+    }
+
+    public WebhookGroup withWebhook(WebhookDefinition webhook) {
+        webhooks.add(webhook);
+        return this;
+    }
+
+    public WebhookGroup inSequence() {
+        this.sequential = true;
+        return this;
+    }
+}
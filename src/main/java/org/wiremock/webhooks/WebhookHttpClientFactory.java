@@ -0,0 +1,90 @@
+package org.wiremock.webhooks;
+
+import wiremock.org.apache.http.client.config.RequestConfig;
+import wiremock.org.apache.http.config.Registry;
+import wiremock.org.apache.http.config.RegistryBuilder;
+import wiremock.org.apache.http.conn.socket.ConnectionSocketFactory;
+import wiremock.org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import wiremock.org.apache.http.conn.ssl.NoopHostnameVerifier;
+import wiremock.org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import wiremock.org.apache.http.conn.ssl.TrustAllStrategy;
+import wiremock.org.apache.http.impl.client.CloseableHttpClient;
+import wiremock.org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import wiremock.org.apache.http.impl.client.HttpClientBuilder;
+import wiremock.org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import wiremock.org.apache.http.ssl.SSLContextBuilder;
+
+import javax.net.ssl.SSLContext;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Builds the pooled client used to send webhooks. Unlike WireMock's proxying client, it is tuned
+ * for sending many requests to a small number of callback hosts, reusing kept-alive connections
+ * wherever possible. Like WireMock's client it honours the standard JVM networking system
+ * properties, such as {@code http.proxyHost}, {@code https.proxyHost}, {@code http.nonProxyHosts},
+ * {@code http.agent}, {@code https.protocols} and {@code https.cipherSuites}.
+ */
+class WebhookHttpClientFactory {
+
+    private static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+
+    static CloseableHttpClient createClient(WebhooksOptions options) {
+        return createClient(options, createConnectionManager(options));
+    }
+
+    static PoolingHttpClientConnectionManager createConnectionManager(WebhooksOptions options) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactories());
+        connectionManager.setMaxTotal(options.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(options.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+        return connectionManager;
+    }
+
+    static CloseableHttpClient createClient(WebhooksOptions options, PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClientBuilder.create()
+            .setConnectionManager(connectionManager)
+            .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+            .evictExpiredConnections()
+            .evictIdleConnections(options.getIdleConnectionTimeoutMillis(), MILLISECONDS)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectTimeout(options.getConnectTimeoutMillis())
+                .setSocketTimeout(options.getSocketTimeoutMillis())
+                .setConnectionRequestTimeout(options.getConnectionRequestTimeoutMillis())
+                .build())
+            .disableAuthCaching()
+            .disableAutomaticRetries()
+            .disableCookieManagement()
+            .disableRedirectHandling()
+            .disableContentCompression()
+            .useSystemProperties()
+            .build();
+    }
+
+    private static Registry<ConnectionSocketFactory> socketFactories() {
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", new SSLConnectionSocketFactory(
+                trustEverything(),
+                systemPropertyList("https.protocols"),
+                systemPropertyList("https.cipherSuites"),
+                NoopHostnameVerifier.INSTANCE))
+            .build();
+    }
+
+    private static String[] systemPropertyList(String name) {
+        String value = System.getProperty(name);
+        return value == null || value.trim().isEmpty() ? null : value.trim().split(" *, *");
+    }
+
+    private static SSLContext trustEverything() {
+        try {
+            return SSLContextBuilder.create()
+                .loadTrustMaterial(null, TrustAllStrategy.INSTANCE)
+                .build();
+        } catch (Exception e) {
+            return throwUnchecked(e, SSLContext.class);
+        }
+    }
+}
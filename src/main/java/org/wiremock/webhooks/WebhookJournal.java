@@ -0,0 +1,352 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.common.Json;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+
+/**
+ * An append-only journal of accepted webhooks, split into numbered segment files. A webhook is
+ * written when it is accepted and a completion marker is written once it has been delivered or
+ * given up on. Only the position of each pending webhook is held in memory; its definition is read
+ * back from disk when it falls due. A segment is deleted once it and every older segment hold no
+ * pending webhooks, and anything left pending is recovered when the journal is next opened,
+ * including webhooks that complete after the journal has been closed. The directory is locked
+ * while open, so that two journals never replay, append to or delete each other's segments.
+ */
+class WebhookJournal {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String LOCK_FILE_NAME = "webhooks.lock";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("webhooks-(\\d+)\\.journal");
+    private static final long SEGMENT_SIZE_BYTES = 16 * 1024 * 1024;
+
+    private static final byte ADDED = 1;
+    private static final byte COMPLETED = 2;
+    private static final int ADDED_HEADER_BYTES = 1 + 8 + 8 + 8 + 8 + 4;
+    private static final int COMPLETED_BYTES = 1 + 8;
+
+    private final File directory;
+    private final FileLock lock;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final List<Entry> recovered;
+    private Segment current;
+    private long nextId;
+    private boolean closed;
+
+    private WebhookJournal(File directory, FileLock lock) throws IOException {
+        this.directory = directory;
+        this.lock = lock;
+        this.recovered = recover();
+        this.current = openSegment(segments.isEmpty() ? 0 : segments.getLast().index + 1);
+        deleteCompletedSegments();
+    }
+
+    /**
+     * @throws IllegalStateException if another journal, in this process or another, has the
+     *                               directory open
+     */
+    static WebhookJournal open(File directory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Unable to create webhook journal directory " + directory);
+        }
+
+        FileLock lock = null;
+        try {
+            lock = lock(directory);
+            return new WebhookJournal(directory, lock);
+        } catch (IOException e) {
+            release(lock);
+            return throwUnchecked(e, WebhookJournal.class);
+        } catch (RuntimeException e) {
+            release(lock);
+            throw e;
+        }
+    }
+
+    private static FileLock lock(File directory) throws IOException {
+        FileChannel channel = new RandomAccessFile(new File(directory, LOCK_FILE_NAME), "rw").getChannel();
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Webhook journal directory " + directory + " is already in use");
+        }
+        return lock;
+    }
+
+    private static void release(FileLock lock) {
+        if (lock == null) {
+            return;
+        }
+
+        try {
+            lock.release();
+            lock.channel().close();
+        } catch (IOException e) {
+            notifier().error("Unable to release webhook journal lock", e);
+        }
+    }
+
+    List<Entry> getRecovered() {
+        return recovered;
+    }
+
+    Entry append(UUID serveEventId, long dueAtMillis, WebhookDefinition definition) {
+        byte[] payload = Json.write(definition).getBytes(UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(ADDED_HEADER_BYTES + payload.length);
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Webhook journal has been closed");
+            }
+
+            long id = nextId++;
+            record.put(ADDED)
+                .putLong(id)
+                .putLong(dueAtMillis)
+                .putLong(serveEventId.getMostSignificantBits())
+                .putLong(serveEventId.getLeastSignificantBits())
+                .putInt(payload.length)
+                .put(payload)
+                .flip();
+
+            Segment segment = currentSegment();
+            long offset = segment.write(record);
+            segment.pendingCount++;
+            return new Entry(id, segment, offset, serveEventId, dueAtMillis);
+        }
+    }
+
+    WebhookDefinition read(Entry entry) {
+        try {
+            return Json.read(new String(entry.segment.readPayload(entry.offset), UTF_8), WebhookDefinition.class);
+        } catch (IOException e) {
+            return throwUnchecked(e, WebhookDefinition.class);
+        }
+    }
+
+    synchronized void complete(Entry entry) {
+        if (closed) {
+            return;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(COMPLETED_BYTES);
+        record.put(COMPLETED).putLong(entry.id).flip();
+        currentSegment().write(record);
+        entry.segment.pendingCount--;
+        deleteCompletedSegments();
+    }
+
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        for (Segment segment: segments) {
+            segment.close();
+        }
+        release(lock);
+    }
+
+    private Segment currentSegment() {
+        if (current.size >= SEGMENT_SIZE_BYTES) {
+            try {
+                current = openSegment(current.index + 1);
+            } catch (IOException e) {
+                return throwUnchecked(e, Segment.class);
+            }
+        }
+        return current;
+    }
+
+    private Segment openSegment(long index) throws IOException {
+        Segment segment = new Segment(index, new File(directory, "webhooks-" + index + ".journal"));
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private void deleteCompletedSegments() {
+        while (segments.size() > 1 && segments.getFirst().pendingCount == 0) {
+            segments.removeFirst().delete();
+        }
+    }
+
+    private List<Entry> recover() throws IOException {
+        List<Long> indexes = new ArrayList<>();
+        String[] names = directory.list();
+        for (String name: names == null ? new String[0] : names) {
+            Matcher matcher = SEGMENT_NAME.matcher(name);
+            if (matcher.matches()) {
+                indexes.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+        Collections.sort(indexes);
+
+        Map<Long, Entry> pending = new LinkedHashMap<>();
+        for (long index: indexes) {
+            Segment segment = openSegment(index);
+            replay(segment, pending);
+        }
+
+        if (!pending.isEmpty()) {
+            notifier().info("Recovered " + pending.size() + " pending webhooks from " + directory);
+        }
+        return new ArrayList<>(pending.values());
+    }
+
+    private void replay(Segment segment, Map<Long, Entry> pending) throws IOException {
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file)))) {
+            while (true) {
+                int type = in.read();
+                if (type == -1) {
+                    break;
+                }
+
+                long id = in.readLong();
+                nextId = Math.max(nextId, id + 1);
+                if (type == ADDED) {
+                    long dueAtMillis = in.readLong();
+                    UUID serveEventId = new UUID(in.readLong(), in.readLong());
+                    int length = in.readInt();
+                    skipFully(in, length);
+                    pending.put(id, new Entry(id, segment, offset, serveEventId, dueAtMillis));
+                    segment.pendingCount++;
+                    offset += ADDED_HEADER_BYTES + length;
+                } else if (type == COMPLETED) {
+                    Entry entry = pending.remove(id);
+                    if (entry != null) {
+                        entry.segment.pendingCount--;
+                    }
+                    offset += COMPLETED_BYTES;
+                } else {
+                    throw new IOException("Corrupt webhook journal segment " + segment.file + " at offset " + offset);
+                }
+            }
+        } catch (EOFException e) {
+            notifier().error("Discarding incomplete record at the end of " + segment.file);
+            segment.truncate(offset);
+        }
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped == 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    static class Entry {
+
+        final long id;
+        final Segment segment;
+        final long offset;
+        final UUID serveEventId;
+        final long dueAtMillis;
+
+        Entry(long id, Segment segment, long offset, UUID serveEventId, long dueAtMillis) {
+            this.id = id;
+            this.segment = segment;
+            this.offset = offset;
+            this.serveEventId = serveEventId;
+            this.dueAtMillis = dueAtMillis;
+        }
+    }
+
+    static class Segment {
+
+        final long index;
+        final File file;
+        private final FileChannel channel;
+        private long size;
+        private int pendingCount;
+
+        Segment(long index, File file) throws IOException {
+            this.index = index;
+            this.file = file;
+            this.channel = new RandomAccessFile(file, "rw").getChannel();
+            this.size = channel.size();
+        }
+
+        long write(ByteBuffer record) {
+            long offset = size;
+            try {
+                while (record.hasRemaining()) {
+                    size += channel.write(record, size);
+                }
+            } catch (IOException e) {
+                throwUnchecked(e);
+            }
+            return offset;
+        }
+
+        byte[] readPayload(long offset) throws IOException {
+            ByteBuffer length = readFully(offset + ADDED_HEADER_BYTES - 4, 4);
+            return readFully(offset + ADDED_HEADER_BYTES, length.getInt()).array();
+        }
+
+        private ByteBuffer readFully(long position, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException("Unexpected end of webhook journal segment " + file);
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        void truncate(long length) throws IOException {
+            channel.truncate(length);
+            size = length;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        void delete() {
+            close();
+            if (!file.delete()) {
+                notifier().error("Unable to delete webhook journal segment " + file);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.wiremock.webhooks;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+class WebhookMetrics implements WebhookMetricsMXBean {
+
+    private final WebhookDispatcher dispatcher;
+    private final CircuitBreakers circuitBreakers;
+    private final TargetLimiters limiters;
+    private final WebhookPipeline pipeline;
+    private final WebhookStreams streams;
+
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong batched = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final LatencyHistogram scheduleLag = new LatencyHistogram();
+    private final ConcurrentMap<String, LatencyHistogram> httpLatencyByTarget = new ConcurrentHashMap<>();
+
+    WebhookMetrics(WebhookDispatcher dispatcher, CircuitBreakers circuitBreakers, TargetLimiters limiters, WebhookPipeline pipeline, WebhookStreams streams) {
+        this.dispatcher = dispatcher;
+        this.circuitBreakers = circuitBreakers;
+        this.limiters = limiters;
+        this.pipeline = pipeline;
+        this.streams = streams;
+    }
+
+    void scheduled() {
+        scheduled.incrementAndGet();
+    }
+
+    void retried() {
+        retried.incrementAndGet();
+    }
+
+    void batched() {
+        batched.incrementAndGet();
+    }
+
+    void deduplicated() {
+        deduplicated.incrementAndGet();
+    }
+
+    void dispatched(long lagMillis) {
+        dispatched.incrementAndGet();
+        scheduleLag.record(lagMillis);
+    }
+
+    void completed(String target, long latencyMillis, boolean success) {
+        httpLatencyFor(target).record(latencyMillis);
+
+        if (success) {
+            succeeded.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+    }
+
+    void failed() {
+        failed.incrementAndGet();
+    }
+
+    @Override
+    public long getScheduledCount() {
+        return scheduled.get();
+    }
+
+    @Override
+    public long getDispatchedCount() {
+        return dispatched.get();
+    }
+
+    @Override
+    public long getSucceededCount() {
+        return succeeded.get();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    @Override
+    public long getRetriedCount() {
+        return retried.get();
+    }
+
+    @Override
+    public long getBatchedCount() {
+        return batched.get();
+    }
+
+    @Override
+    public long getDeduplicatedCount() {
+        return deduplicated.get();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return dispatcher.getRejectedCount();
+    }
+
+    @Override
+    public long getDroppedDelayedCount() {
+        return dispatcher.getDroppedDelayedCount();
+    }
+
+    @Override
+    public long getShortCircuitedCount() {
+        return circuitBreakers.getShortCircuitedCount();
+    }
+
+    @Override
+    public long getThrottledCount() {
+        return limiters.getThrottledCount();
+    }
+
+    @Override
+    public int getThrottledWaitingCount() {
+        return limiters.getWaitingCount();
+    }
+
+    @Override
+    public int getOrderedWaitingCount() {
+        return dispatcher.getOrderedWaitingCount();
+    }
+
+    @Override
+    public int getActiveStreamCount() {
+        return streams.size();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return dispatcher.getQueueDepth();
+    }
+
+    @Override
+    public int getPendingDelayedCount() {
+        return dispatcher.getPendingDelayedCount();
+    }
+
+    @Override
+    public int getActiveThreads() {
+        return dispatcher.getActiveCount();
+    }
+
+    @Override
+    public LatencySnapshot getScheduleLag() {
+        return scheduleLag.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getThrottleWait() {
+        return limiters.getThrottleWait();
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getHttpLatencyByTarget() {
+        Map<String, LatencySnapshot> snapshots = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry: httpLatencyByTarget.entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return snapshots;
+    }
+
+    @Override
+    public Map<String, StageTiming> getStageTimings() {
+        return pipeline.timings();
+    }
+
+    private LatencyHistogram httpLatencyFor(String target) {
+        LatencyHistogram histogram = httpLatencyByTarget.get(target);
+        if (histogram == null) {
+            LatencyHistogram newHistogram = new LatencyHistogram();
+            histogram = httpLatencyByTarget.putIfAbsent(target, newHistogram);
+            if (histogram == null) {
+                histogram = newHistogram;
+            }
+        }
+
+        return histogram;
+    }
+}
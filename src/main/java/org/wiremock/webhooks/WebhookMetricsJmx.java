@@ -0,0 +1,46 @@
+package org.wiremock.webhooks;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+
+class WebhookMetricsJmx {
+
+    private static final String DOMAIN_AND_TYPE = "org.wiremock.webhooks:type=WebhookMetrics";
+    private static final AtomicInteger instanceCount = new AtomicInteger();
+
+    static ObjectName register(WebhookMetricsMXBean metrics, String jmxName) {
+        try {
+            ObjectName name = objectName(jmxName != null ? jmxName : "webhooks-" + instanceCount.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+            return name;
+        } catch (Exception e) {
+            notifier().error("Unable to register webhook metrics with JMX", e);
+            return null;
+        }
+    }
+
+    static boolean isValidName(String jmxName) {
+        try {
+            objectName(jmxName);
+            return true;
+        } catch (MalformedObjectNameException e) {
+            return false;
+        }
+    }
+
+    private static ObjectName objectName(String jmxName) throws MalformedObjectNameException {
+        return new ObjectName(DOMAIN_AND_TYPE + ",name=" + jmxName);
+    }
+
+    static void unregister(ObjectName name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (Exception e) {
+            notifier().error("Unable to unregister webhook metrics from JMX", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.wiremock.webhooks;
+
+import java.util.Map;
+
+public interface WebhookMetricsMXBean {
+
+    long getScheduledCount();
+
+    long getDispatchedCount();
+
+    long getSucceededCount();
+
+    long getFailedCount();
+
+    long getRetriedCount();
+
+    long getBatchedCount();
+
+    long getDeduplicatedCount();
+
+    long getRejectedCount();
+
+    long getDroppedDelayedCount();
+
+    long getShortCircuitedCount();
+
+    long getThrottledCount();
+
+    int getThrottledWaitingCount();
+
+    int getOrderedWaitingCount();
+
+    int getActiveStreamCount();
+
+    int getQueueDepth();
+
+    int getPendingDelayedCount();
+
+    int getActiveThreads();
+
+    LatencySnapshot getScheduleLag();
+
+    LatencySnapshot getThrottleWait();
+
+    Map<String, LatencySnapshot> getHttpLatencyByTarget();
+
+    Map<String, StageTiming> getStageTimings();
+}
@@ -0,0 +1,159 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.common.Notifier;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.wiremock.webhooks.interceptors.WebhookInterceptor;
+import org.wiremock.webhooks.interceptors.WebhookTransformer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Runs a webhook through the configured transformers and interceptors in turn. A stage that throws
+ * drops the webhook it was given, without affecting other webhooks fanned out from the same event.
+ */
+class WebhookPipeline {
+
+    private final List<Stage> stages = new ArrayList<>();
+
+    WebhookPipeline(List<WebhookTransformer> transformers, List<WebhookInterceptor> interceptors) {
+        Map<String, Integer> names = new LinkedHashMap<>();
+        for (WebhookTransformer transformer: transformers) {
+            addStage(names, transformer.getClass().getName(), new TransformerInterceptor(transformer));
+        }
+        for (WebhookInterceptor interceptor: interceptors) {
+            addStage(names, interceptor.getClass().getName(), interceptor);
+        }
+    }
+
+    private void addStage(Map<String, Integer> names, String className, WebhookInterceptor interceptor) {
+        Integer seen = names.get(className);
+        names.put(className, seen == null ? 1 : seen + 1);
+        stages.add(new Stage(seen == null ? className : className + "#" + (seen + 1), interceptor));
+    }
+
+    boolean isEmpty() {
+        return stages.isEmpty();
+    }
+
+    /**
+     * @param definition a copy of the definition belonging to this event alone
+     */
+    List<WebhookDefinition> apply(ServeEvent serveEvent, WebhookDefinition definition, Notifier notifier) {
+        List<WebhookDefinition> current = Collections.singletonList(definition);
+        for (Stage stage: stages) {
+            List<WebhookDefinition> next = new ArrayList<>(current.size());
+            for (WebhookDefinition input: current) {
+                List<WebhookDefinition> output = stage.apply(serveEvent, input, notifier);
+                addDistinct(next, output);
+            }
+            current = next;
+            if (current.isEmpty()) {
+                break;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * A stage fanning out by returning the same instance more than once gets a copy for each
+     * repeat, so that later stages never share a definition between webhooks.
+     */
+    private static void addDistinct(List<WebhookDefinition> next, List<WebhookDefinition> output) {
+        if (output.size() == 1) {
+            next.add(output.get(0));
+            return;
+        }
+
+        Map<WebhookDefinition, Boolean> seen = new IdentityHashMap<>();
+        for (WebhookDefinition definition: output) {
+            next.add(seen.put(definition, Boolean.TRUE) == null ? definition : definition.copy());
+        }
+    }
+
+    Map<String, StageTiming> timings() {
+        Map<String, StageTiming> timings = new LinkedHashMap<>();
+        for (Stage stage: stages) {
+            timings.put(stage.name, stage.timing());
+        }
+        return timings;
+    }
+
+    private static class Stage {
+
+        private final String name;
+        private final WebhookInterceptor interceptor;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLong vetoed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        Stage(String name, WebhookInterceptor interceptor) {
+            this.name = name;
+            this.interceptor = interceptor;
+        }
+
+        List<WebhookDefinition> apply(ServeEvent serveEvent, WebhookDefinition definition, Notifier notifier) {
+            long start = System.nanoTime();
+            try {
+                List<WebhookDefinition> output = interceptor.intercept(serveEvent, definition);
+                if (output == null || output.isEmpty()) {
+                    vetoed.incrementAndGet();
+                    return Collections.emptyList();
+                }
+                return output;
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                notifier.error("Webhook pipeline stage " + name + " failed, dropping webhook: " + e.getMessage());
+                return Collections.emptyList();
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        private void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        StageTiming timing() {
+            long total = count.get();
+            return new StageTiming(
+                total,
+                total == 0 ? 0 : NANOSECONDS.toMicros(totalNanos.get()) / (double) total,
+                NANOSECONDS.toMicros(maxNanos.get()),
+                vetoed.get(),
+                failed.get()
+            );
+        }
+    }
+
+    private static class TransformerInterceptor implements WebhookInterceptor {
+
+        private final WebhookTransformer transformer;
+
+        TransformerInterceptor(WebhookTransformer transformer) {
+            this.transformer = transformer;
+        }
+
+        @Override
+        public List<WebhookDefinition> intercept(ServeEvent serveEvent, WebhookDefinition webhookDefinition) {
+            WebhookDefinition transformed = transformer.transform(serveEvent, webhookDefinition);
+            return transformed == null
+                ? Collections.<WebhookDefinition>emptyList()
+                : Collections.singletonList(transformed);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.http.GenericHttpUriRequest;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import wiremock.org.apache.http.Header;
+import wiremock.org.apache.http.HttpEntity;
+import wiremock.org.apache.http.client.methods.HttpDelete;
+import wiremock.org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import wiremock.org.apache.http.client.methods.HttpGet;
+import wiremock.org.apache.http.client.methods.HttpHead;
+import wiremock.org.apache.http.client.methods.HttpOptions;
+import wiremock.org.apache.http.client.methods.HttpPatch;
+import wiremock.org.apache.http.client.methods.HttpPost;
+import wiremock.org.apache.http.client.methods.HttpPut;
+import wiremock.org.apache.http.client.methods.HttpRequestBase;
+import wiremock.org.apache.http.client.methods.HttpTrace;
+import wiremock.org.apache.http.client.methods.HttpUriRequest;
+import wiremock.org.apache.http.entity.ByteArrayEntity;
+import wiremock.org.apache.http.message.BasicHeader;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.http.RequestMethod.DELETE;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.HEAD;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.OPTIONS;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.PATCH;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.PUT;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.TRACE;
+
+/**
+ * The HTTP request for a webhook definition, worked out once: the URL is parsed, every value of
+ * every header becomes a header, the body is signed if asked for and wrapped in a read-only entity.
+ * All of these are immutable and shared by every request made from the template, so each delivery
+ * only creates the request object itself. A signature that covers the time of the request is the
+ * one thing made for each delivery.
+ */
+class WebhookRequestTemplate {
+
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final RequestMethod method;
+    private final URI uri;
+    private final Header[] headers;
+    private final HttpEntity entity;
+    private final byte[] body;
+    private final RequestSigner signer;
+
+    private WebhookRequestTemplate(RequestMethod method, URI uri, Header[] headers, HttpEntity entity, byte[] body, RequestSigner signer) {
+        this.method = method;
+        this.uri = uri;
+        this.headers = headers;
+        this.entity = entity;
+        this.body = body;
+        this.signer = signer;
+    }
+
+    static WebhookRequestTemplate compile(WebhookDefinition definition) {
+        List<Header> headers = new ArrayList<>();
+        for (HttpHeader header: definition.getHeaders().all()) {
+            for (String value: header.values()) {
+                headers.add(new BasicHeader(header.key(), value));
+            }
+        }
+
+        byte[] body = definition.getBinaryBody();
+        HttpEntity entity = null;
+        if (body != null) {
+            entity = definition.getChunkedDribbleDelay() == null
+                ? new ByteArrayEntity(body)
+                : new ChunkedDribbleEntity(body, definition.getChunkedDribbleDelay());
+        }
+
+        RequestSigner signer = null;
+        if (definition.getSignature() != null) {
+            signer = RequestSigner.forPolicy(definition.getSignature());
+            if (signer.isFixed()) {
+                headers.add(signer.sign(body == null ? NO_BODY : body));
+                signer = null;
+            }
+        }
+
+        return new WebhookRequestTemplate(
+            definition.getMethod(),
+            definition.getUrl(),
+            headers.toArray(new Header[headers.size()]),
+            entity,
+            body == null ? NO_BODY : body,
+            signer
+        );
+    }
+
+    HttpUriRequest newRequest() {
+        HttpRequestBase request = createRequest();
+        request.setHeaders(headers);
+        if (signer != null) {
+            for (Header header: signer.sign(body, System.currentTimeMillis())) {
+                request.addHeader(header);
+            }
+        }
+        if (entity != null && request instanceof HttpEntityEnclosingRequestBase) {
+            ((HttpEntityEnclosingRequestBase) request).setEntity(entity);
+        }
+        return request;
+    }
+
+    private HttpRequestBase createRequest() {
+        HttpRequestBase request;
+        if (method.equals(POST)) {
+            request = new HttpPost();
+        } else if (method.equals(PUT)) {
+            request = new HttpPut();
+        } else if (method.equals(PATCH)) {
+            request = new HttpPatch();
+        } else if (method.equals(GET)) {
+            request = new HttpGet();
+        } else if (method.equals(DELETE)) {
+            request = new HttpDelete();
+        } else if (method.equals(HEAD)) {
+            request = new HttpHead();
+        } else if (method.equals(OPTIONS)) {
+            request = new HttpOptions();
+        } else if (method.equals(TRACE)) {
+            request = new HttpTrace();
+        } else {
+            return new GenericHttpUriRequest(method.getName(), uri.toString());
+        }
+        request.setURI(uri);
+        return request;
+    }
+}
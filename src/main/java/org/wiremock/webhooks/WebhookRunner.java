@@ -0,0 +1,292 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.common.Notifier;
+import wiremock.org.apache.http.HttpResponse;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+class WebhookRunner implements Runnable {
+
+    private final UUID serveEventId;
+    private final WebhookDefinition definition;
+    private final Notifier notifier;
+    private final WebhookRequestTemplate request;
+    private final DispatchContext context;
+    private final WebhookCompletion completion;
+    private final int attempt;
+    private final long delayMillis;
+    private long dueAtNanos;
+    private boolean throttled;
+    private boolean holdsToken;
+    private long throttledAtNanos;
+    private boolean finished;
+
+    WebhookRunner(UUID serveEventId, WebhookDefinition definition, WebhookRequestTemplate request, DispatchContext context, Notifier notifier, long delayMillis) {
+        this(serveEventId, definition, request, context, notifier, null, 1, delayMillis);
+    }
+
+    WebhookRunner(UUID serveEventId, WebhookDefinition definition, WebhookRequestTemplate request, DispatchContext context, Notifier notifier, WebhookCompletion completion, long delayMillis) {
+        this(serveEventId, definition, request, context, notifier, completion, 1, delayMillis);
+    }
+
+    private WebhookRunner(UUID serveEventId, WebhookDefinition definition, WebhookRequestTemplate request, DispatchContext context, Notifier notifier, WebhookCompletion completion, int attempt, long delayMillis) {
+        this.serveEventId = serveEventId;
+        this.completion = completion;
+        this.definition = definition;
+        this.request = request;
+        this.context = context;
+        this.notifier = notifier;
+        this.attempt = attempt;
+        this.delayMillis = delayMillis;
+        this.dueAtNanos = System.nanoTime() + MILLISECONDS.toNanos(delayMillis);
+    }
+
+    void schedule() {
+        this.context.metrics.scheduled();
+        scheduleOrGiveUp(this.delayMillis);
+    }
+
+    private void scheduleOrGiveUp(long delayMillis) {
+        if (this.context.dispatcher.schedule(this, delayMillis, MILLISECONDS)) {
+            return;
+        }
+
+        if (this.throttled) {
+            this.context.limiters.recordAbandoned(this);
+            this.throttled = false;
+        }
+        if (!this.context.dispatcher.isShutdown()) {
+            this.notifier.error(String.format("Too many delayed webhooks, giving up on webhook %s request to %s",
+                this.definition.getMethod(),
+                this.definition.getUrl()
+            ));
+            completed(false);
+        }
+    }
+
+    /**
+     * Whatever goes wrong, the completion is told exactly once, as an ordering lane or sequence
+     * waiting on it would otherwise never move on.
+     */
+    @Override
+    public void run() {
+        try {
+            send();
+        } catch (RuntimeException e) {
+            this.notifier.error("Unable to send webhook: " + e.getMessage());
+            if (!this.finished) {
+                completed(false);
+            }
+        }
+    }
+
+    private void send() {
+        String target = this.definition.targetKey();
+        TargetLimiter limiter = this.context.limiters.forTarget(target, this.definition.getRateLimit());
+        if (limiter != null && !acquire(limiter)) {
+            return;
+        }
+
+        try {
+            deliver(target);
+        } finally {
+            if (limiter != null) {
+                WebhookRunner next = limiter.release();
+                if (next != null) {
+                    next.resume();
+                }
+            }
+        }
+    }
+
+    private boolean acquire(TargetLimiter limiter) {
+        long now = System.nanoTime();
+        long waitMillis = limiter.tryAcquire(this, this.holdsToken, now);
+        if (waitMillis == TargetLimiter.ACQUIRED) {
+            this.holdsToken = false;
+            if (this.throttled) {
+                this.context.limiters.recordReleased(this, now - this.throttledAtNanos);
+                this.throttled = false;
+            }
+            return true;
+        }
+
+        if (!this.throttled) {
+            this.throttled = true;
+            this.throttledAtNanos = now;
+            this.context.limiters.recordThrottled(this);
+        }
+        if (waitMillis != TargetLimiter.PARKED) {
+            this.holdsToken = true;
+            this.dueAtNanos = now + MILLISECONDS.toNanos(waitMillis);
+            scheduleOrGiveUp(waitMillis);
+        }
+        return false;
+    }
+
+    private void resume() {
+        this.dueAtNanos = System.nanoTime();
+        scheduleOrGiveUp(0);
+    }
+
+    private void deliver(String target) {
+        this.notifier.info("Running WebhookRunner");
+        this.context.metrics.dispatched(NANOSECONDS.toMillis(System.nanoTime() - this.dueAtNanos));
+
+        CircuitBreaker circuitBreaker = null;
+        if (this.context.circuitBreakers.isEnabled()) {
+            circuitBreaker = this.context.circuitBreakers.forTarget(target);
+            long now = System.currentTimeMillis();
+            if (!circuitBreaker.tryAcquire(now)) {
+                this.context.circuitBreakers.recordShortCircuit();
+                this.context.metrics.failed();
+                recordDelivery(null, "Circuit open", 0, null);
+                this.notifier.error(String.format("Circuit to %s is open, not sending webhook %s request to %s",
+                    target,
+                    this.definition.getMethod(),
+                    this.definition.getUrl()
+                ));
+                retryOrGiveUp("circuit open", circuitBreaker.millisUntilProbe(now));
+                return;
+            }
+        }
+
+        long start = System.nanoTime();
+        HttpResponse response;
+        try {
+            response = this.context.httpClient.execute(this.request.newRequest());
+        } catch (IOException | RuntimeException e) {
+            // Anything the client throws, not only I/O errors, is a failed delivery, so that a
+            // half open circuit always hears how its probe went
+            long latencyMillis = NANOSECONDS.toMillis(System.nanoTime() - start);
+            this.context.metrics.completed(target, latencyMillis, false);
+            recordDelivery(null, e.getMessage(), latencyMillis, null);
+            if (circuitBreaker != null) {
+                circuitBreaker.recordFailure(System.currentTimeMillis());
+            }
+            this.notifier.error("Error: " + e.getMessage());
+            retryOrGiveUp(e.getMessage(), 0);
+            return;
+        }
+
+        int status = response.getStatusLine().getStatusCode();
+        long latencyMillis = NANOSECONDS.toMillis(System.nanoTime() - start);
+        String responseBody = null;
+        try {
+            responseBody = ResponseBodies.captureAndDrain(response.getEntity(), this.context.responseCaptureLimit);
+        } catch (IOException | RuntimeException e) {
+            // The target has already answered, so this doesn't change how the delivery went
+            this.notifier.error(String.format("Unable to read the response to webhook %s request to %s: %s",
+                this.definition.getMethod(),
+                this.definition.getUrl(),
+                e.getMessage()
+            ));
+        }
+
+        this.context.metrics.completed(target, latencyMillis, status < 400);
+        if (this.context.responseBodyLoggingEnabled) {
+            this.notifier.info(
+                String.format("Webhook %s request to %s returned status %s\n\n%s",
+                    this.definition.getMethod(),
+                    this.definition.getUrl(),
+                    response.getStatusLine(),
+                    responseBody
+                )
+            );
+        } else {
+            this.notifier.info(
+                String.format("Webhook %s request to %s returned status %s",
+                    this.definition.getMethod(),
+                    this.definition.getUrl(),
+                    response.getStatusLine()
+                )
+            );
+        }
+        recordDelivery(status, null, latencyMillis, responseBody);
+
+        if (circuitBreaker != null) {
+            if (status >= 500) {
+                circuitBreaker.recordFailure(System.currentTimeMillis());
+            } else {
+                circuitBreaker.recordSuccess();
+            }
+        }
+
+        RetryPolicy retry = this.definition.getRetry();
+        if (retry != null && retry.shouldRetryStatus(status)) {
+            retryOrGiveUp("status " + status, 0);
+        } else {
+            completed(status < 400);
+        }
+    }
+
+    private void recordDelivery(Integer status, String error, long latencyMillis, String responseBody) {
+        if (!this.context.history.isEnabled()) {
+            return;
+        }
+
+        this.context.history.record(new WebhookDelivery(
+            this.serveEventId,
+            this.definition.getMethod(),
+            this.definition.getUrl(),
+            this.definition.targetKey(),
+            this.attempt,
+            status,
+            error,
+            latencyMillis,
+            System.currentTimeMillis(),
+            responseBody
+        ));
+    }
+
+    private void retryOrGiveUp(String reason, long minimumDelayMillis) {
+        RetryPolicy retry = this.definition.getRetry();
+        if (retry == null) {
+            completed(false);
+            return;
+        }
+
+        if (!retry.canRetryAfter(this.attempt)) {
+            this.notifier.error(String.format("Webhook %s request to %s failed after %d attempts (%s), giving up",
+                this.definition.getMethod(),
+                this.definition.getUrl(),
+                this.attempt,
+                reason
+            ));
+            completed(false);
+            return;
+        }
+
+        long retryDelayMillis = Math.max(minimumDelayMillis, retry.delayMillisAfter(this.attempt));
+        this.notifier.info(String.format("Retrying webhook %s request to %s in %dms (attempt %d of %d)",
+            this.definition.getMethod(),
+            this.definition.getUrl(),
+            retryDelayMillis,
+            this.attempt + 1,
+            retry.getMaxAttempts()
+        ));
+        this.context.metrics.retried();
+        this.finished = true;
+        new WebhookRunner(
+            this.serveEventId,
+            this.definition,
+            this.request,
+            this.context,
+            this.notifier,
+            this.completion,
+            this.attempt + 1,
+            retryDelayMillis
+        ).schedule();
+    }
+
+    private void completed(boolean delivered) {
+        this.finished = true;
+        if (this.completion != null) {
+            this.completion.completed(delivered);
+        }
+    }
+}
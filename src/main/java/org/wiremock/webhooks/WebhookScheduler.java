@@ -0,0 +1,18 @@
+package org.wiremock.webhooks;
+
+/**
+ * Holds delayed tasks until they are due and then runs them on its own timer thread. Tasks
+ * given to a scheduler are expected to do no more than hand work over to another executor.
+ */
+interface WebhookScheduler {
+
+    void schedule(Runnable task, long delayMillis);
+
+    int getPendingCount();
+
+    /**
+     * Stops the timer thread and discards every task that has not yet fallen due, returning how
+     * many were discarded. Tasks scheduled afterwards are rejected.
+     */
+    int shutdown();
+}
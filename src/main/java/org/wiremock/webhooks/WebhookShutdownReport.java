@@ -0,0 +1,53 @@
+package org.wiremock.webhooks;
+
+/**
+ * What was left undelivered when a {@link Webhooks} instance was shut down. Abandoned webhooks that
+ * were written to the durable queue are sent when the queue is next opened.
+ */
+public class WebhookShutdownReport {
+
+    private final int abandonedDelayedCount;
+    private final int abandonedQueuedCount;
+    private final int abandonedInFlightCount;
+
+    WebhookShutdownReport(int abandonedDelayedCount, int abandonedQueuedCount, int abandonedInFlightCount) {
+        this.abandonedDelayedCount = abandonedDelayedCount;
+        this.abandonedQueuedCount = abandonedQueuedCount;
+        this.abandonedInFlightCount = abandonedInFlightCount;
+    }
+
+    /**
+     * Webhooks, retries and batches that were still waiting on a delay, or that were scheduled
+     * after shutdown began.
+     */
+    public int getAbandonedDelayedCount() {
+        return abandonedDelayedCount;
+    }
+
+    /**
+     * Webhooks that were due but had not been picked up by a dispatch thread by the deadline, or
+     * that were still waiting for their ordering lane.
+     */
+    public int getAbandonedQueuedCount() {
+        return abandonedQueuedCount;
+    }
+
+    /**
+     * Webhooks that were still being sent at the deadline and were interrupted.
+     */
+    public int getAbandonedInFlightCount() {
+        return abandonedInFlightCount;
+    }
+
+    public int getAbandonedCount() {
+        return abandonedDelayedCount + abandonedQueuedCount + abandonedInFlightCount;
+    }
+
+    @Override
+    public String toString() {
+        return getAbandonedCount() + " webhooks abandoned (" +
+            abandonedDelayedCount + " delayed, " +
+            abandonedQueuedCount + " queued, " +
+            abandonedInFlightCount + " in flight)";
+    }
+}
@@ -0,0 +1,127 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.common.Notifier;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Sends the same webhook over and over at a fixed rate, until it has been sent as many times as
+ * its {@link RepeatPolicy} asks for or it is cancelled. Between sends a stream is nothing more
+ * than a task waiting on the dispatcher's timer, so idle streams hold no thread. A stream only
+ * ever has one send in flight: the next one is scheduled once the current one has been delivered
+ * or given up on, for the next slot at the stream's rate. Slots missed while a slow target was
+ * answering are skipped rather than sent late, so sends never pile up behind a slow target.
+ */
+class WebhookStream implements Runnable, WebhookCompletion {
+
+    private final UUID id = UUID.randomUUID();
+    private final UUID serveEventId;
+    private final WebhookDefinition definition;
+    private final WebhookRequestTemplate request;
+    private final DispatchContext context;
+    private final Notifier notifier;
+    private final WebhookCompletion completion;
+    private final Integer count;
+    private final long intervalNanos;
+    private final AtomicInteger sent = new AtomicInteger();
+    private long firstDueNanos;
+    private volatile boolean cancelled;
+
+    WebhookStream(UUID serveEventId,
+                  WebhookDefinition definition,
+                  WebhookRequestTemplate request,
+                  DispatchContext context,
+                  Notifier notifier,
+                  WebhookCompletion completion) {
+        this.serveEventId = serveEventId;
+        this.definition = definition;
+        this.request = request;
+        this.context = context;
+        this.notifier = notifier;
+        this.completion = completion;
+        this.count = definition.getRepeat().getCount();
+        this.intervalNanos = MILLISECONDS.toNanos(Math.max(1, definition.getRepeat().getIntervalMillis()));
+    }
+
+    void start(long delayMillis) {
+        this.firstDueNanos = System.nanoTime() + MILLISECONDS.toNanos(delayMillis);
+        this.context.streams.add(this);
+        if (!this.context.dispatcher.schedule(this, delayMillis, MILLISECONDS)) {
+            finished(false);
+        }
+    }
+
+    @Override
+    public void run() {
+        if (this.cancelled) {
+            return;
+        }
+
+        this.sent.incrementAndGet();
+        this.context.metrics.scheduled();
+        new WebhookRunner(
+            this.serveEventId,
+            this.definition,
+            this.request,
+            this.context,
+            this.notifier,
+            this,
+            0
+        ).run();
+    }
+
+    void cancel() {
+        this.cancelled = true;
+        this.notifier.info(String.format("Cancelled webhook stream %s to %s after %d webhooks", this.id, this.definition.getUrl(), this.sent.get()));
+        finished(false);
+    }
+
+    /**
+     * Called as each send has been delivered or given up on.
+     */
+    @Override
+    public void completed(boolean delivered) {
+        if (this.cancelled) {
+            return;
+        }
+
+        int emission = this.sent.get();
+        if (this.count != null && emission >= this.count) {
+            finished(delivered);
+            return;
+        }
+
+        long now = System.nanoTime();
+        long slot = Math.max(emission, (now - this.firstDueNanos) / this.intervalNanos + 1);
+        long dueAtNanos = this.firstDueNanos + slot * this.intervalNanos;
+        if (!this.context.dispatcher.schedule(this, NANOSECONDS.toMillis(Math.max(0, dueAtNanos - now)), MILLISECONDS)) {
+            finished(false);
+        }
+    }
+
+    private void finished(boolean delivered) {
+        if (this.context.streams.remove(this) && this.completion != null) {
+            this.completion.completed(delivered);
+        }
+    }
+
+    UUID getId() {
+        return this.id;
+    }
+
+    ActiveWebhookStream describe() {
+        return new ActiveWebhookStream(
+            this.id,
+            this.serveEventId,
+            this.definition.getMethod(),
+            this.definition.getUrl(),
+            this.sent.get(),
+            this.count,
+            NANOSECONDS.toMillis(this.intervalNanos)
+        );
+    }
+}
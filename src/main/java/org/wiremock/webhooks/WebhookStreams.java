@@ -0,0 +1,54 @@
+package org.wiremock.webhooks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The repeating webhook streams currently running, so that they can be listed and cancelled.
+ */
+class WebhookStreams {
+
+    private final ConcurrentMap<UUID, WebhookStream> streams = new ConcurrentHashMap<>();
+
+    void add(WebhookStream stream) {
+        streams.put(stream.getId(), stream);
+    }
+
+    boolean remove(WebhookStream stream) {
+        return streams.remove(stream.getId(), stream);
+    }
+
+    boolean cancel(UUID id) {
+        WebhookStream stream = streams.get(id);
+        if (stream == null) {
+            return false;
+        }
+
+        stream.cancel();
+        return true;
+    }
+
+    int cancelAll() {
+        int cancelled = 0;
+        for (WebhookStream stream: new ArrayList<>(streams.values())) {
+            stream.cancel();
+            cancelled++;
+        }
+        return cancelled;
+    }
+
+    List<ActiveWebhookStream> list() {
+        List<ActiveWebhookStream> active = new ArrayList<>(streams.size());
+        for (WebhookStream stream: streams.values()) {
+            active.add(stream.describe());
+        }
+        return active;
+    }
+
+    int size() {
+        return streams.size();
+    }
+}
@@ -0,0 +1,16 @@
+package org.wiremock.webhooks;
+
+import java.util.List;
+
+public class WebhookStreamsResult {
+
+    private final List<ActiveWebhookStream> streams;
+
+    public WebhookStreamsResult(List<ActiveWebhookStream> streams) {
+        this.streams = streams;
+    }
+
+    public List<ActiveWebhookStream> getStreams() {
+        return streams;
+    }
+}
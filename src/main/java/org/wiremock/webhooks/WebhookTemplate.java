@@ -0,0 +1,221 @@
+package org.wiremock.webhooks;
+
+import com.github.tomakehurst.wiremock.extension.responsetemplating.HandlebarsOptimizedTemplate;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.RequestTemplateModel;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.helpers.WireMockHelpers;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import wiremock.com.github.jknack.handlebars.Handlebars;
+import wiremock.com.github.jknack.handlebars.helper.AssignHelper;
+import wiremock.com.github.jknack.handlebars.helper.ConditionalHelpers;
+import wiremock.com.github.jknack.handlebars.helper.StringHelpers;
+import wiremock.com.google.common.collect.ImmutableMap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+
+/**
+ * A webhook definition with its templated URL, header values and body compiled up front, so
+ * rendering it for a serve event only applies the already compiled templates. Definitions without
+ * any templates render to themselves, and their HTTP request is precompiled along with them. The
+ * ordering and deduplication keys only steer delivery, so they are compiled whether or not
+ * templating of the webhook itself is enabled.
+ */
+class WebhookTemplate {
+
+    private final WebhookDefinition definition;
+    private final HandlebarsOptimizedTemplate url;
+    private final List<HeaderTemplate> headers;
+    private final HandlebarsOptimizedTemplate body;
+    private final HandlebarsOptimizedTemplate orderingKey;
+    private final HandlebarsOptimizedTemplate deduplicationKey;
+    private final WebhookRequestTemplate request;
+
+    private WebhookTemplate(WebhookDefinition definition,
+                            HandlebarsOptimizedTemplate url,
+                            List<HeaderTemplate> headers,
+                            HandlebarsOptimizedTemplate body,
+                            HandlebarsOptimizedTemplate orderingKey,
+                            HandlebarsOptimizedTemplate deduplicationKey) {
+        this.definition = definition;
+        this.url = url;
+        this.headers = headers;
+        this.body = body;
+        this.orderingKey = orderingKey;
+        this.deduplicationKey = deduplicationKey;
+        this.request = isStatic() ? WebhookRequestTemplate.compile(definition) : null;
+    }
+
+    static Handlebars createHandlebars() {
+        Handlebars handlebars = new Handlebars();
+        for (StringHelpers helper: StringHelpers.values()) {
+            handlebars.registerHelper(helper.name(), helper);
+        }
+        for (ConditionalHelpers helper: ConditionalHelpers.values()) {
+            handlebars.registerHelper(helper.name(), helper);
+        }
+        handlebars.registerHelper(AssignHelper.NAME, AssignHelper.INSTANCE);
+        for (WireMockHelpers helper: WireMockHelpers.values()) {
+            handlebars.registerHelper(helper.name(), helper);
+        }
+        return handlebars;
+    }
+
+    static boolean isTemplate(String value) {
+        return value != null && value.contains("{{");
+    }
+
+    static WebhookTemplate compile(WebhookDefinition definition, Handlebars handlebars) {
+        return compile(definition, handlebars, true);
+    }
+
+    /**
+     * @param templated whether the URL, header values and body are templates, or sent as they are
+     */
+    static WebhookTemplate compile(WebhookDefinition definition, Handlebars handlebars, boolean templated) {
+        HandlebarsOptimizedTemplate orderingKey = isTemplate(definition.getOrderingKey())
+            ? new HandlebarsOptimizedTemplate(handlebars, definition.getOrderingKey())
+            : null;
+
+        HandlebarsOptimizedTemplate deduplicationKey = isTemplate(definition.getDeduplicationKey())
+            ? new HandlebarsOptimizedTemplate(handlebars, definition.getDeduplicationKey())
+            : null;
+
+        if (!templated) {
+            return new WebhookTemplate(definition, null, null, null, orderingKey, deduplicationKey);
+        }
+
+        HandlebarsOptimizedTemplate url = isTemplate(definition.getUrlTemplate())
+            ? new HandlebarsOptimizedTemplate(handlebars, definition.getUrlTemplate())
+            : null;
+
+        List<HeaderTemplate> headers = null;
+        if (hasTemplatedHeader(definition)) {
+            headers = new ArrayList<>();
+            for (HttpHeader header: definition.getHeaders().all()) {
+                List<HandlebarsOptimizedTemplate> values = new ArrayList<>();
+                for (String value: header.values()) {
+                    values.add(new HandlebarsOptimizedTemplate(handlebars, value));
+                }
+                headers.add(new HeaderTemplate(header.key(), values));
+            }
+        }
+
+        HandlebarsOptimizedTemplate body = definition.hasTextBody() && isTemplate(definition.getBody())
+            ? new HandlebarsOptimizedTemplate(handlebars, definition.getBody())
+            : null;
+
+        return new WebhookTemplate(definition, url, headers, body, orderingKey, deduplicationKey);
+    }
+
+    private static boolean hasTemplatedHeader(WebhookDefinition definition) {
+        for (HttpHeader header: definition.getHeaders().all()) {
+            for (String value: header.values()) {
+                if (isTemplate(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    WebhookDefinition getDefinition() {
+        return definition;
+    }
+
+    boolean isStatic() {
+        return url == null && headers == null && body == null;
+    }
+
+    /**
+     * The definition's ordering key for the serve event, or null if it has none.
+     */
+    String renderOrderingKey(ServeEvent serveEvent) {
+        if (orderingKey == null) {
+            return definition.getOrderingKey();
+        }
+
+        return apply(orderingKey, model(serveEvent));
+    }
+
+    /**
+     * The definition's deduplication key for the serve event, or null if it has none.
+     */
+    String renderDeduplicationKey(ServeEvent serveEvent) {
+        if (deduplicationKey == null) {
+            return definition.getDeduplicationKey();
+        }
+
+        return apply(deduplicationKey, model(serveEvent));
+    }
+
+    /**
+     * The request for a definition rendered from this template, which is the precompiled one
+     * unless the definition was templated or has since been copied.
+     */
+    WebhookRequestTemplate requestFor(WebhookDefinition rendered) {
+        return rendered == definition ? request : WebhookRequestTemplate.compile(rendered);
+    }
+
+    /**
+     * Returns a copy of the definition with its templates applied, or the definition itself if it
+     * has none.
+     */
+    WebhookDefinition render(ServeEvent serveEvent) {
+        if (isStatic()) {
+            return definition;
+        }
+
+        Map<String, Object> model = model(serveEvent);
+        WebhookDefinition rendered = definition.copy();
+        if (url != null) {
+            rendered.withUrl(apply(url, model));
+        }
+        if (headers != null) {
+            List<HttpHeader> renderedHeaders = new ArrayList<>(headers.size());
+            for (HeaderTemplate header: headers) {
+                renderedHeaders.add(header.render(model));
+            }
+            rendered.withHeaders(renderedHeaders);
+        }
+        if (body != null) {
+            rendered.withBody(apply(body, model));
+        }
+        return rendered;
+    }
+
+    private static Map<String, Object> model(ServeEvent serveEvent) {
+        return ImmutableMap.<String, Object>of("request", RequestTemplateModel.from(serveEvent.getRequest()));
+    }
+
+    private static String apply(HandlebarsOptimizedTemplate template, Object model) {
+        try {
+            return template.apply(model);
+        } catch (IOException e) {
+            return throwUnchecked(e, String.class);
+        }
+    }
+
+    private static class HeaderTemplate {
+
+        final String key;
+        final List<HandlebarsOptimizedTemplate> values;
+
+        HeaderTemplate(String key, List<HandlebarsOptimizedTemplate> values) {
+            this.key = key;
+            this.values = values;
+        }
+
+        HttpHeader render(Object model) {
+            List<String> rendered = new ArrayList<>(values.size());
+            for (HandlebarsOptimizedTemplate value: values) {
+                rendered.add(apply(value, model));
+            }
+            return new HttpHeader(key, rendered);
+        }
+    }
+}
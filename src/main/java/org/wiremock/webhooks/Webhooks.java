@@ -1,53 +1,81 @@
 package org.wiremock.webhooks;
 
+import com.github.tomakehurst.wiremock.admin.Router;
 import com.github.tomakehurst.wiremock.common.Notifier;
 import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.extension.PostServeAction;
-import com.github.tomakehurst.wiremock.http.HttpClientFactory;
-import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
-import wiremock.org.apache.http.HttpResponse;
-import wiremock.org.apache.http.client.HttpClient;
-import wiremock.org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
-import wiremock.org.apache.http.client.methods.HttpUriRequest;
-import wiremock.org.apache.http.entity.ByteArrayEntity;
-import wiremock.org.apache.http.util.EntityUtils;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import org.wiremock.webhooks.interceptors.WebhookTransformer;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.management.ObjectName;
 
-import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
-import static com.github.tomakehurst.wiremock.http.HttpClientFactory.getHttpRequestFor;
-import static java.util.concurrent.TimeUnit.SECONDS;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.DELETE;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
 
-public class Webhooks extends PostServeAction {
+public class Webhooks extends PostServeAction implements StubLifecycleListener, AdminApiExtension {
 
-    private final ScheduledExecutorService scheduler;
-    private final HttpClient httpClient;
-    private final List<WebhookTransformer> transformers;
+    private final WebhooksOptions options;
+    private final DispatchContext context;
+    private final WebhookDefinitionCache definitions;
+    private final DeduplicationWindow deduplication;
+    private final ObjectName jmxName;
+    private volatile boolean shutDown;
+    private WebhookShutdownReport shutdownReport;
 
     private Webhooks(
-            ScheduledExecutorService scheduler,
-            HttpClient httpClient,
-            List<WebhookTransformer> transformers) {
-      this.scheduler = scheduler;
-      this.httpClient = httpClient;
-      this.transformers = transformers;
+            WebhooksOptions options,
+            DispatchContext context) {
+      this.options = options;
+      this.context = context;
+      this.definitions = new WebhookDefinitionCache(WebhookTemplate.createHandlebars(), options.isTemplatingEnabled());
+      this.deduplication = new DeduplicationWindow(
+          options.getDeduplicationWindowMillis(), options.getDeduplicationCacheSize());
+
+      this.jmxName = options.isJmxMetricsEnabled() ? WebhookMetricsJmx.register(context.metrics, options.getJmxName()) : null;
+
+      if (context.journal != null) {
+          Notifier notifier = notifier();
+          for (WebhookJournal.Entry entry: context.journal.getRecovered()) {
+              new JournaledWebhook(entry, context, notifier, null).schedule();
+          }
+      }
     }
 
     public Webhooks() {
-      this(Executors.newScheduledThreadPool(10), HttpClientFactory.createClient(), new ArrayList<WebhookTransformer>());
+      this(webhooksOptions(), new WebhookTransformer[0]);
     }
 
     public Webhooks(WebhookTransformer... transformers) {
-      this(Executors.newScheduledThreadPool(10), HttpClientFactory.createClient(), Arrays.asList(transformers));
+      this(webhooksOptions(), transformers);
+    }
+
+    public Webhooks(WebhooksOptions options, WebhookTransformer... transformers) {
+      this(
+          options,
+          new DispatchContext(
+              options,
+              WebhookHttpClientFactory.createClient(options),
+              new WebhookDispatcher(options),
+              new CircuitBreakers(options.getCircuitBreaker()),
+              new DeliveryHistory(options.getDeliveryHistorySize()),
+              options.getDurableQueueDirectory() == null ? null : WebhookJournal.open(options.getDurableQueueDirectory()),
+              new WebhookPipeline(Arrays.asList(transformers), options.getInterceptors())
+          )
+      );
     }
 
     @Override
@@ -55,87 +83,320 @@ public class Webhooks extends PostServeAction {
         return "webhook";
     }
 
+    /**
+     * Only hands the serve event over to the dispatch threads, so that none of the work of
+     * preparing a webhook adds to the latency of the stub response. The exceptions are the
+     * deduplication key, rendered here so that duplicates are dropped before costing anything more,
+     * and the ordering key, rendered here so that serve events take their place in the ordering
+     * lane in the order they were served.
+     */
     @Override
-    public void doAction(final ServeEvent serveEvent, final Admin admin, final Parameters parameters) {
-        final Notifier notifier = notifier();
+    public void doAction(ServeEvent serveEvent, Admin admin, Parameters parameters) {
+        if (shutDown) {
+            notifier().info("Webhooks have been shut down, not sending webhook");
+            return;
+        }
+
+        if (StubWebhooks.hasDeduplicationKey(parameters) && isDuplicate(serveEvent, parameters)) {
+            notifier().info("Duplicate webhook within the deduplication window, not sending");
+            context.metrics.deduplicated();
+            return;
+        }
+
+        PreparationTask task = new PreparationTask(serveEvent, parameters, notifier());
+        if (StubWebhooks.hasOrderingKey(parameters)) {
+            String orderingKey = renderOrderingKey(serveEvent, parameters);
+            if (orderingKey != null) {
+                context.dispatcher.submit(context.dispatcher.laneFor(orderingKey), task);
+                return;
+            }
+        }
+
+        context.dispatcher.submit(task);
+    }
+
+    private String renderOrderingKey(ServeEvent serveEvent, Parameters parameters) {
+        try {
+            return definitions.get(serveEvent, parameters).renderOrderingKey(serveEvent);
+        } catch (RuntimeException e) {
+            notifier().error("Unable to render webhook ordering key, sending unordered: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isDuplicate(ServeEvent serveEvent, Parameters parameters) {
+        String key;
+        try {
+            key = definitions.get(serveEvent, parameters).renderDeduplicationKey(serveEvent);
+        } catch (RuntimeException e) {
+            notifier().error("Unable to render webhook deduplication key, sending anyway: " + e.getMessage());
+            return false;
+        }
+
+        UUID stubId = serveEvent.getStubMapping() == null ? null : serveEvent.getStubMapping().getId();
+        return key != null && !deduplication.firstSeen(stubId, key, System.currentTimeMillis());
+    }
+
+    /**
+     * @param ticket the ordering lane ticket to add every dispatched webhook to, or null if unordered
+     */
+    private void prepare(ServeEvent serveEvent, Parameters parameters, Notifier notifier, DeliveryLanes.Ticket ticket) {
+        notifier.info("Preparing webhook");
+
+        StubWebhooks webhooks = definitions.get(serveEvent, parameters);
+        List<WebhookChain.Step> sequence = webhooks.isSequential() ? new ArrayList<WebhookChain.Step>() : null;
+        for (WebhookTemplate template: webhooks.getTemplates()) {
+            WebhookDefinition definition;
+            try {
+                definition = template.render(serveEvent);
+            } catch (RuntimeException e) {
+                notifier.error("Unable to render webhook template: " + e.getMessage());
+                if (sequence != null) {
+                    return;
+                }
+                continue;
+            }
+
+            List<WebhookDefinition> outputs = context.pipeline.isEmpty()
+                ? Collections.singletonList(definition)
+                : context.pipeline.apply(serveEvent, template.isStatic() ? definition.copy() : definition, notifier);
+            for (WebhookDefinition output: outputs) {
+                if (sequence != null) {
+                    sequence.add(new WebhookChain.Step(template, output));
+                } else {
+                    dispatchOrdered(serveEvent.getId(), template, output, notifier, ticket);
+                }
+            }
+        }
+
+        if (sequence != null && !sequence.isEmpty()) {
+            notifier.info("Scheduling sequence of " + sequence.size() + " webhooks...");
+            if (ticket != null) {
+                ticket.add();
+            }
+            new WebhookChain(serveEvent.getId(), sequence, chainDispatch, notifier, ticket).start();
+        }
+    }
+
+    private void dispatchOrdered(UUID serveEventId, WebhookTemplate template, WebhookDefinition definition, Notifier notifier, DeliveryLanes.Ticket ticket) {
+        if (ticket == null) {
+            dispatch(serveEventId, template, definition, notifier, null);
+            return;
+        }
 
-        notifier.info("doAction on Webhooks");
+        ticket.add();
+        try {
+            dispatch(serveEventId, template, definition, notifier, ticket);
+        } catch (RuntimeException e) {
+            ticket.completed(false);
+            throw e;
+        }
+    }
 
-        WebhookDefinition definition = parameters.as(WebhookDefinition.class);
-        for (WebhookTransformer transformer: transformers) {
-            definition = transformer.transform(serveEvent, definition);
+    private final WebhookChain.Dispatch chainDispatch = new WebhookChain.Dispatch() {
+        @Override
+        public void dispatch(UUID serveEventId, WebhookTemplate template, WebhookDefinition definition, Notifier notifier, WebhookCompletion completion) {
+            Webhooks.this.dispatch(serveEventId, template, definition, notifier, completion);
         }
+    };
 
-        notifier.info("Delay in seconds is " + definition.getDelayInSeconds());
-        Long delayInSeconds = 
-            definition.getDelayInSeconds() == null || definition.getDelayInSeconds().isEmpty()
-            ? 0L
-            : Long.valueOf(definition.getDelayInSeconds());
+    /**
+     * @param completion told when the webhook has been delivered or given up on, or null. Ordered
+     *                   webhooks and steps in a sequence have one and are sent on their own rather
+     *                   than batched.
+     */
+    private void dispatch(UUID serveEventId, WebhookTemplate template, WebhookDefinition definition, Notifier notifier, WebhookCompletion completion) {
+        long delayMillis = definition.sampleDelayMillis();
+        notifier.info("Delay is " + delayMillis + "ms");
 
-        HttpUriRequest request = buildRequest(definition);
+        if (definition.getRepeat() != null) {
+            notifier.info("Starting webhook stream...");
+            new WebhookStream(serveEventId, definition, template.requestFor(definition), context, notifier, completion).start(delayMillis);
+            return;
+        }
+
+        if (definition.getBatch() != null && completion == null) {
+            notifier.info("Batching...");
+            new BatchedWebhook(serveEventId, definition, context, notifier).schedule(delayMillis);
+            return;
+        }
+
+        if (context.journal != null) {
+            WebhookJournal.Entry entry = context.journal.append(
+                serveEventId,
+                System.currentTimeMillis() + delayMillis,
+                definition
+            );
+            notifier.info("Scheduling...");
+            new JournaledWebhook(entry, context, notifier, completion).schedule();
+            return;
+        }
+
+        WebhookRequestTemplate request = template.requestFor(definition);
 
         notifier.info("Scheduling...");
-        scheduler.schedule(
-            (Runnable)(new WebhookRunner(definition, request, this.httpClient, notifier)),
-            delayInSeconds.longValue(),
-            SECONDS
-        );
+        new WebhookRunner(serveEventId, definition, request, context, notifier, completion, delayMillis).schedule();
     }
 
-    private static HttpUriRequest buildRequest(WebhookDefinition definition) {
-        HttpUriRequest request = getHttpRequestFor(
-                definition.getMethod(),
-                definition.getUrl().toString()
-        );
+    /**
+     * The serve event and stub parameters as WireMock handed them over. Both are immutable once the
+     * response has been served, so they can safely be read from a dispatch thread. When run on an
+     * ordering lane, the lane is held until every webhook it prepares has completed.
+     */
+    private class PreparationTask extends DeliveryLanes.Task {
+
+        private final ServeEvent serveEvent;
+        private final Parameters parameters;
+        private final Notifier notifier;
 
-        for (HttpHeader header: definition.getHeaders().all()) {
-            request.addHeader(header.key(), header.firstValue());
+        PreparationTask(ServeEvent serveEvent, Parameters parameters, Notifier notifier) {
+            this.serveEvent = serveEvent;
+            this.parameters = parameters;
+            this.notifier = notifier;
         }
 
-        if (definition.getMethod().hasEntity()) {
-            HttpEntityEnclosingRequestBase entityRequest = (HttpEntityEnclosingRequestBase) request;
-            entityRequest.setEntity(new ByteArrayEntity(definition.getBinaryBody()));
+        @Override
+        public void run() {
+            try {
+                prepare(serveEvent, parameters, notifier, ticket);
+            } finally {
+                if (ticket != null) {
+                    ticket.completed(true);
+                }
+            }
         }
+    }
 
-        return request;
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        if (options.isMetricsAdminEndpointEnabled()) {
+            router.add(GET, "/webhooks/metrics", new WebhookMetricsTask(context.metrics));
+        }
+        if (context.history.isEnabled()) {
+            router.add(GET, "/webhooks/deliveries", new FindWebhookDeliveriesTask(context.history));
+            router.add(DELETE, "/webhooks/deliveries", new ClearWebhookDeliveriesTask(context.history));
+        }
+        router.add(GET, "/webhooks/streams", new FindWebhookStreamsTask(context.streams));
+        router.add(DELETE, "/webhooks/streams/{id}", new CancelWebhookStreamTask(context.streams));
+        router.add(DELETE, "/webhooks/streams", new CancelAllWebhookStreamsTask(context.streams));
     }
 
-    public static WebhookDefinition webhook() {
-        return new WebhookDefinition();
+    @Override
+    public void beforeStubCreated(StubMapping stub) {
+    }
+
+    @Override
+    public void afterStubCreated(StubMapping stub) {
+        definitions.precompileKeyed(stub);
     }
-}
 
+    @Override
+    public void beforeStubEdited(StubMapping oldStub, StubMapping newStub) {
+    }
 
-class WebhookRunner implements Runnable {
+    @Override
+    public void afterStubEdited(StubMapping oldStub, StubMapping newStub) {
+        definitions.invalidate(oldStub);
+        definitions.precompileKeyed(newStub);
+    }
 
-    private WebhookDefinition definition;
-    private Notifier notifier;
-    private HttpClient httpClient;
-    private HttpUriRequest request;
+    @Override
+    public void beforeStubRemoved(StubMapping stub) {
+    }
 
-    public WebhookRunner(WebhookDefinition definition, HttpUriRequest request, HttpClient httpClient, Notifier notifier) {
-        this.definition = definition;
-        this.request = request;
-        this.httpClient = httpClient;
-        this.notifier = notifier;
+    @Override
+    public void afterStubRemoved(StubMapping stub) {
+        definitions.invalidate(stub);
     }
 
     @Override
-    public void run() {
-        this.notifier.info("Running WebhookRunner");
+    public void beforeStubsReset() {
+    }
+
+    @Override
+    public void afterStubsReset() {
+        definitions.clear();
+        deduplication.clear();
+    }
+
+    /**
+     * Shuts down with the configured shutdown timeout.
+     *
+     * @see #shutdown(long, TimeUnit)
+     */
+    public WebhookShutdownReport shutdown() {
+        return shutdown(options.getShutdownTimeoutMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Stops accepting webhooks and waits up to the given timeout for those already being sent, or
+     * due to be sent, to finish. Webhooks still waiting on a delay are abandoned straight away.
+     * Running webhook streams are cancelled. Afterwards the HTTP client, durable queue and JMX
+     * registration are released. WireMock doesn't tell extensions when the server stops, so this
+     * should be called alongside stopping it. Calling it again returns the first report.
+     */
+    public synchronized WebhookShutdownReport shutdown(long timeout, TimeUnit unit) {
+        if (shutdownReport != null) {
+            return shutdownReport;
+        }
+
+        shutDown = true;
+        context.streams.cancelAll();
+        shutdownReport = context.dispatcher.shutdown(timeout, unit);
+        context.limiters.abandonAll();
+
         try {
-            HttpResponse response = this.httpClient.execute(this.request);
-            this.notifier.info(
-                String.format("Webhook %s request to %s returned status %s\n\n%s",
-                    this.definition.getMethod(),
-                    this.definition.getUrl(),
-                    response.getStatusLine(),
-                    EntityUtils.toString(response.getEntity())
-                )
-            );
+            context.httpClient.close();
         } catch (IOException e) {
-            this.notifier.info("Error: " + e.getMessage());
-            throwUnchecked(e);
+            notifier().error("Unable to close webhook HTTP client", e);
         }
+        if (context.journal != null) {
+            context.journal.close();
+        }
+        if (jmxName != null) {
+            WebhookMetricsJmx.unregister(jmxName);
+        }
+
+        if (shutdownReport.getAbandonedCount() > 0) {
+            notifier().error("Webhooks shut down, " + shutdownReport);
+        } else {
+            notifier().info("Webhooks shut down, all in-flight webhooks delivered");
+        }
+        return shutdownReport;
+    }
+
+    public WebhookMetricsMXBean getMetrics() {
+        return context.metrics;
+    }
+
+    public List<WebhookDelivery> getDeliveries() {
+        return context.history.find(DeliveryHistory.Query.all());
+    }
+
+    public List<ActiveWebhookStream> getActiveStreams() {
+        return context.streams.list();
+    }
+
+    /**
+     * @return false if there is no running stream with the id
+     */
+    public boolean cancelStream(UUID streamId) {
+        return context.streams.cancel(streamId);
+    }
+
+    public long getRejectedWebhookCount() {
+        return context.dispatcher.getRejectedCount();
+    }
+
+    public long getShortCircuitedWebhookCount() {
+        return context.circuitBreakers.getShortCircuitedCount();
+    }
+
+    public static WebhookDefinition webhook() {
+        return new WebhookDefinition();
+    }
+
+    public static WebhookGroup webhooks(WebhookDefinition... webhooks) {
+        return new WebhookGroup(webhooks);
     }
 }
@@ -0,0 +1,387 @@
+package org.wiremock.webhooks;
+
+import org.wiremock.webhooks.interceptors.WebhookInterceptor;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static wiremock.com.google.common.base.Preconditions.checkArgument;
+import static wiremock.com.google.common.base.Preconditions.checkNotNull;
+
+public class WebhooksOptions {
+
+    public static final int DEFAULT_POOL_SIZE = 10;
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    public static final int DEFAULT_DELAYED_CAPACITY = 100000;
+    public static final RejectionPolicy DEFAULT_REJECTION_POLICY = RejectionPolicy.CALLER_RUNS;
+    public static final DispatchMode DEFAULT_DISPATCH_MODE = DispatchMode.BLOCKING;
+    public static final int DEFAULT_MAX_CONNECTIONS = 200;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 50;
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 5000;
+    public static final int DEFAULT_SOCKET_TIMEOUT_MILLIS = 30000;
+    public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS = 5000;
+    public static final long DEFAULT_IDLE_CONNECTION_TIMEOUT_MILLIS = 30000;
+    public static final int DEFAULT_DELIVERY_HISTORY_SIZE = 1000;
+    public static final int DEFAULT_RESPONSE_CAPTURE_LIMIT = 1024;
+    public static final SchedulerBackend DEFAULT_SCHEDULER_BACKEND = SchedulerBackend.SCHEDULED_EXECUTOR;
+    public static final long DEFAULT_TIMER_TICK_MILLIS = 10;
+    public static final int DEFAULT_TIMER_WHEEL_SIZE = 512;
+    public static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 5000;
+    public static final int DEFAULT_ORDERING_LANES = 256;
+    public static final long DEFAULT_DEDUPLICATION_WINDOW_MILLIS = 60000;
+    public static final int DEFAULT_DEDUPLICATION_CACHE_SIZE = 10000;
+
+    private int poolSize = DEFAULT_POOL_SIZE;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private int delayedCapacity = DEFAULT_DELAYED_CAPACITY;
+    private RejectionPolicy rejectionPolicy = DEFAULT_REJECTION_POLICY;
+    private DispatchMode dispatchMode = DEFAULT_DISPATCH_MODE;
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+    private int connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private int socketTimeoutMillis = DEFAULT_SOCKET_TIMEOUT_MILLIS;
+    private int connectionRequestTimeoutMillis = DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS;
+    private long idleConnectionTimeoutMillis = DEFAULT_IDLE_CONNECTION_TIMEOUT_MILLIS;
+    private CircuitBreakerSettings circuitBreaker;
+    private boolean jmxMetricsEnabled = false;
+    private String jmxName;
+    private boolean metricsAdminEndpointEnabled = true;
+    private int deliveryHistorySize = DEFAULT_DELIVERY_HISTORY_SIZE;
+    private int responseCaptureLimit = DEFAULT_RESPONSE_CAPTURE_LIMIT;
+    private boolean responseBodyLoggingEnabled = false;
+    private SchedulerBackend schedulerBackend = DEFAULT_SCHEDULER_BACKEND;
+    private long timerTickMillis = DEFAULT_TIMER_TICK_MILLIS;
+    private int timerWheelSize = DEFAULT_TIMER_WHEEL_SIZE;
+    private File durableQueueDirectory;
+    private boolean templatingEnabled = false;
+    private RateLimit rateLimit;
+    private final Map<String, RateLimit> targetRateLimits = new LinkedHashMap<>();
+    private final List<WebhookInterceptor> interceptors = new ArrayList<>();
+    private long shutdownTimeoutMillis = DEFAULT_SHUTDOWN_TIMEOUT_MILLIS;
+    private int orderingLanes = DEFAULT_ORDERING_LANES;
+    private long deduplicationWindowMillis = DEFAULT_DEDUPLICATION_WINDOW_MILLIS;
+    private int deduplicationCacheSize = DEFAULT_DEDUPLICATION_CACHE_SIZE;
+
+    public static WebhooksOptions webhooksOptions() {
+        return new WebhooksOptions();
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getDelayedCapacity() {
+        return delayedCapacity;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    public DispatchMode getDispatchMode() {
+        return dispatchMode;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int getSocketTimeoutMillis() {
+        return socketTimeoutMillis;
+    }
+
+    public int getConnectionRequestTimeoutMillis() {
+        return connectionRequestTimeoutMillis;
+    }
+
+    public long getIdleConnectionTimeoutMillis() {
+        return idleConnectionTimeoutMillis;
+    }
+
+    public CircuitBreakerSettings getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public boolean isJmxMetricsEnabled() {
+        return jmxMetricsEnabled;
+    }
+
+    public String getJmxName() {
+        return jmxName;
+    }
+
+    public boolean isMetricsAdminEndpointEnabled() {
+        return metricsAdminEndpointEnabled;
+    }
+
+    public int getDeliveryHistorySize() {
+        return deliveryHistorySize;
+    }
+
+    public int getResponseCaptureLimit() {
+        return responseCaptureLimit;
+    }
+
+    public boolean isResponseBodyLoggingEnabled() {
+        return responseBodyLoggingEnabled;
+    }
+
+    public SchedulerBackend getSchedulerBackend() {
+        return schedulerBackend;
+    }
+
+    public long getTimerTickMillis() {
+        return timerTickMillis;
+    }
+
+    public int getTimerWheelSize() {
+        return timerWheelSize;
+    }
+
+    public File getDurableQueueDirectory() {
+        return durableQueueDirectory;
+    }
+
+    public boolean isTemplatingEnabled() {
+        return templatingEnabled;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public Map<String, RateLimit> getTargetRateLimits() {
+        return targetRateLimits;
+    }
+
+    public List<WebhookInterceptor> getInterceptors() {
+        return interceptors;
+    }
+
+    public long getShutdownTimeoutMillis() {
+        return shutdownTimeoutMillis;
+    }
+
+    public int getOrderingLanes() {
+        return orderingLanes;
+    }
+
+    public long getDeduplicationWindowMillis() {
+        return deduplicationWindowMillis;
+    }
+
+    public int getDeduplicationCacheSize() {
+        return deduplicationCacheSize;
+    }
+
+    public WebhooksOptions withPoolSize(int poolSize) {
+        checkArgument(poolSize > 0, "Pool size must be greater than zero");
+        this.poolSize = poolSize;
+        return this;
+    }
+
+    public WebhooksOptions withQueueCapacity(int queueCapacity) {
+        checkArgument(queueCapacity > 0, "Queue capacity must be greater than zero");
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * The most webhooks waiting on a delay before the rejection policy is applied to new ones.
+     */
+    public WebhooksOptions withDelayedCapacity(int delayedCapacity) {
+        checkArgument(delayedCapacity > 0, "Delayed capacity must be greater than zero");
+        this.delayedCapacity = delayedCapacity;
+        return this;
+    }
+
+    public WebhooksOptions withRejectionPolicy(RejectionPolicy rejectionPolicy) {
+        this.rejectionPolicy = checkNotNull(rejectionPolicy);
+        return this;
+    }
+
+    public WebhooksOptions withDispatchMode(DispatchMode dispatchMode) {
+        this.dispatchMode = checkNotNull(dispatchMode);
+        return this;
+    }
+
+    public WebhooksOptions withMaxConnections(int maxConnections) {
+        checkArgument(maxConnections > 0, "Max connections must be greater than zero");
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    public WebhooksOptions withMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        checkArgument(maxConnectionsPerRoute > 0, "Max connections per route must be greater than zero");
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        return this;
+    }
+
+    public WebhooksOptions withConnectTimeoutMillis(int connectTimeoutMillis) {
+        checkArgument(connectTimeoutMillis >= 0, "Connect timeout must not be negative");
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        return this;
+    }
+
+    public WebhooksOptions withSocketTimeoutMillis(int socketTimeoutMillis) {
+        checkArgument(socketTimeoutMillis >= 0, "Socket timeout must not be negative");
+        this.socketTimeoutMillis = socketTimeoutMillis;
+        return this;
+    }
+
+    public WebhooksOptions withConnectionRequestTimeoutMillis(int connectionRequestTimeoutMillis) {
+        checkArgument(connectionRequestTimeoutMillis >= 0, "Connection request timeout must not be negative");
+        this.connectionRequestTimeoutMillis = connectionRequestTimeoutMillis;
+        return this;
+    }
+
+    public WebhooksOptions withIdleConnectionTimeoutMillis(long idleConnectionTimeoutMillis) {
+        checkArgument(idleConnectionTimeoutMillis > 0, "Idle connection timeout must be greater than zero");
+        this.idleConnectionTimeoutMillis = idleConnectionTimeoutMillis;
+        return this;
+    }
+
+    public WebhooksOptions withCircuitBreaker(CircuitBreakerSettings circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    public WebhooksOptions withJmxMetrics(boolean enabled) {
+        this.jmxMetricsEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * The {@code name} key of the metrics MXBean, which is registered as
+     * {@code org.wiremock.webhooks:type=WebhookMetrics,name=<jmxName>}. Defaults to {@code webhooks-<n>}, where
+     * {@code n} counts the instances registered by this JVM.
+     */
+    public WebhooksOptions withJmxName(String jmxName) {
+        checkArgument(jmxName != null && !jmxName.isEmpty(), "JMX name must not be empty");
+        checkArgument(WebhookMetricsJmx.isValidName(jmxName), "JMX name %s is not a valid object name value", jmxName);
+        this.jmxName = jmxName;
+        return this;
+    }
+
+    public WebhooksOptions withMetricsAdminEndpoint(boolean enabled) {
+        this.metricsAdminEndpointEnabled = enabled;
+        return this;
+    }
+
+    public WebhooksOptions withDeliveryHistorySize(int deliveryHistorySize) {
+        checkArgument(deliveryHistorySize >= 0, "Delivery history size must not be negative");
+        this.deliveryHistorySize = deliveryHistorySize;
+        return this;
+    }
+
+    public WebhooksOptions withResponseCaptureLimit(int responseCaptureLimit) {
+        checkArgument(responseCaptureLimit >= 0, "Response capture limit must not be negative");
+        this.responseCaptureLimit = responseCaptureLimit;
+        return this;
+    }
+
+    public WebhooksOptions withResponseBodyLogging(boolean enabled) {
+        this.responseBodyLoggingEnabled = enabled;
+        return this;
+    }
+
+    public WebhooksOptions withSchedulerBackend(SchedulerBackend schedulerBackend) {
+        this.schedulerBackend = checkNotNull(schedulerBackend);
+        return this;
+    }
+
+    public WebhooksOptions withTimerTickMillis(long timerTickMillis) {
+        checkArgument(timerTickMillis > 0, "Timer tick must be greater than zero");
+        this.timerTickMillis = timerTickMillis;
+        return this;
+    }
+
+    public WebhooksOptions withTimerWheelSize(int timerWheelSize) {
+        checkArgument(timerWheelSize > 0, "Timer wheel size must be greater than zero");
+        this.timerWheelSize = timerWheelSize;
+        return this;
+    }
+
+    public WebhooksOptions withDurableQueue(File directory) {
+        this.durableQueueDirectory = directory;
+        return this;
+    }
+
+    public WebhooksOptions withDurableQueue(String directory) {
+        return withDurableQueue(directory == null ? null : new File(directory));
+    }
+
+    public WebhooksOptions withTemplating(boolean enabled) {
+        this.templatingEnabled = enabled;
+        return this;
+    }
+
+    public WebhooksOptions withRateLimit(RateLimit rateLimit) {
+        this.rateLimit = rateLimit;
+        return this;
+    }
+
+    /**
+     * @param target the host and port webhooks are sent to, e.g. "api.example.com:443"
+     */
+    public WebhooksOptions withRateLimit(String target, RateLimit rateLimit) {
+        checkNotNull(target);
+        if (rateLimit == null) {
+            targetRateLimits.remove(target);
+        } else {
+            targetRateLimits.put(target, rateLimit);
+        }
+        return this;
+    }
+
+    /**
+     * Interceptors run in the order they are added, after any transformers passed to {@link Webhooks}.
+     */
+    public WebhooksOptions withInterceptor(WebhookInterceptor interceptor) {
+        interceptors.add(checkNotNull(interceptor));
+        return this;
+    }
+
+    public WebhooksOptions withShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+        checkArgument(shutdownTimeoutMillis >= 0, "Shutdown timeout must not be negative");
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        return this;
+    }
+
+    public WebhooksOptions withOrderingLanes(int orderingLanes) {
+        checkArgument(orderingLanes > 0, "Number of ordering lanes must be greater than zero");
+        this.orderingLanes = orderingLanes;
+        return this;
+    }
+
+    public WebhooksOptions withDeduplicationWindowMillis(long deduplicationWindowMillis) {
+        checkArgument(deduplicationWindowMillis > 0, "Deduplication window must be greater than zero");
+        this.deduplicationWindowMillis = deduplicationWindowMillis;
+        return this;
+    }
+
+    /**
+     * The most deduplication keys remembered at once. When full, the oldest keys are forgotten
+     * before their window has passed.
+     */
+    public WebhooksOptions withDeduplicationCacheSize(int deduplicationCacheSize) {
+        checkArgument(deduplicationCacheSize > 0, "Deduplication cache size must be greater than zero");
+        this.deduplicationCacheSize = deduplicationCacheSize;
+        return this;
+    }
+}
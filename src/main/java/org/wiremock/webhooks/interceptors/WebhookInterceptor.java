@@ -0,0 +1,20 @@
+package org.wiremock.webhooks.interceptors;
+
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.wiremock.webhooks.WebhookDefinition;
+
+import java.util.List;
+
+/**
+ * A stage in the pipeline every webhook passes through before it is scheduled. Interceptors run on
+ * the dispatch threads rather than the thread serving the request, and each is given a definition
+ * belonging to the current event alone, so it may be modified freely.
+ */
+public interface WebhookInterceptor {
+
+  /**
+   * @return the webhooks to send in place of the given one: an empty list to veto it, or more than
+   * one to fan it out. Use {@link WebhookDefinition#copy()} to create each additional webhook.
+   */
+  List<WebhookDefinition> intercept(ServeEvent serveEvent, WebhookDefinition webhookDefinition);
+}
@@ -10,6 +10,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
 import static org.hamcrest.Matchers.is;
@@ -23,6 +24,7 @@ import com.github.tomakehurst.wiremock.http.Response;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import java.util.concurrent.CountDownLatch;
 import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -71,6 +73,11 @@ public class FailingWebhookTest {
     WireMock.configureFor(targetServer.port());
   }
 
+  @After
+  public void shutdown() {
+    webhooks.shutdown(100, MILLISECONDS);
+  }
+
   @Test
   public void failWhenExecutingTheWebhook() throws Exception {
     rule.stubFor(post(urlPathEqualTo("/something-async"))
@@ -0,0 +1,109 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.RejectionPolicy;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookBackPressureTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks(
+        webhooksOptions()
+            .withPoolSize(1)
+            .withQueueCapacity(1)
+            .withDelayedCapacity(2)
+            .withRejectionPolicy(RejectionPolicy.BLOCK)
+    );
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl())
+            .willReturn(aResponse().withStatus(200).withFixedDelay(100)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void handsOrderedWebhooksOnWithoutBlockingTheWorkers() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/ordered"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBody("event")
+                .withOrderingKey("same"))
+        );
+
+        for (int i = 0; i < 5; i++) {
+            client.post("/ordered", new StringEntity("", TEXT_PLAIN));
+        }
+
+        waitForCallbacks(5);
+        assertThat(targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size(), is(5));
+    }
+
+    @Test
+    public void holdsNewWebhooksWhileTheTimerIsFull() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/delayed"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBody("event")
+                .withFixedDelay(500))
+        );
+
+        for (int i = 0; i < 3; i++) {
+            client.post("/delayed", new StringEntity("", TEXT_PLAIN));
+            Thread.sleep(100);
+        }
+
+        assertThat(webhooks.getRejectedWebhookCount(), is(1L));
+        waitForCallbacks(3);
+        assertThat(targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size(), is(3));
+        assertThat(webhooks.getRejectedWebhookCount(), is(1L));
+    }
+
+    private void waitForCallbacks(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size() < count
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
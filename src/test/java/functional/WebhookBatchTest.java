@@ -0,0 +1,115 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.BatchPolicy.batchPolicy;
+import static org.wiremock.webhooks.Webhooks.webhook;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WebhookBatchTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks();
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void coalescesWebhooksToTheSameTargetIntoBatches() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"event\":1}")
+                .withBatch(batchPolicy().withMaxSize(3).withLingerMillis(300)))
+        );
+
+        for (int i = 0; i < 5; i++) {
+            client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        }
+
+        waitForCallbackCount(2);
+        List<String> bodies = new ArrayList<>();
+        for (LoggedRequest callback: targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback")))) {
+            bodies.add(callback.getBodyAsString());
+        }
+        assertThat(bodies, containsInAnyOrder(
+            "[{\"event\":1},{\"event\":1},{\"event\":1}]",
+            "[{\"event\":1},{\"event\":1}]"
+        ));
+        assertThat(webhooks.getMetrics().getBatchedCount(), is(5L));
+    }
+
+    @Test
+    public void batchesWebhooksWithoutABody() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBatch(batchPolicy().withMaxSize(2).withLingerMillis(300)))
+        );
+
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+
+        waitForCallbackCount(1);
+        List<LoggedRequest> callbacks = targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback")));
+        assertThat(callbacks.size(), is(1));
+        assertThat(callbacks.get(0).getBodyAsString(), is("[,]"));
+    }
+
+    private int callbackCount() {
+        return targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size();
+    }
+
+    private void waitForCallbackCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (callbackCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.CircuitBreakerSettings.circuitBreaker;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.net.ServerSocket;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookCircuitBreakerTest {
+
+    Webhooks webhooks = new Webhooks(
+        webhooksOptions()
+            .withPoolSize(1)
+            .withCircuitBreaker(circuitBreaker()
+                .withMinimumCalls(2)
+                .withFailureRateThreshold(0.5)
+                .withOpenDurationMillis(60000))
+    );
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+    int deadPort;
+
+    @Before
+    public void init() throws Exception {
+        client = new WireMockTestClient(rule.port());
+        try (ServerSocket socket = new ServerSocket(0)) {
+            deadPort = socket.getLocalPort();
+        }
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void shortCircuitsWebhooksToATargetThatKeepsFailing() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + deadPort + "/callback")
+                .withBody("event"))
+        );
+
+        for (int i = 0; i < 5; i++) {
+            client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        }
+
+        waitForShortCircuitedCount(3L);
+        assertThat(webhooks.getShortCircuitedWebhookCount(), is(3L));
+    }
+
+    @Test
+    public void countsErrorsThrownByTheHttpClientAsFailures() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:70000/callback")
+                .withBody("event"))
+        );
+
+        for (int i = 0; i < 5; i++) {
+            client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        }
+
+        waitForShortCircuitedCount(3L);
+        assertThat(webhooks.getShortCircuitedWebhookCount(), is(3L));
+    }
+
+    private void waitForShortCircuitedCount(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (webhooks.getShortCircuitedWebhookCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookDeduplicationTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    // Templating is left off, as the deduplication key is rendered regardless
+    Webhooks webhooks = new Webhooks(webhooksOptions()
+        .withDeduplicationWindowMillis(500));
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        client = new WireMockTestClient(rule.port());
+
+        rule.stubFor(post(urlPathEqualTo("/payments"))
+            .willReturn(aResponse().withStatus(202))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBody("payment")
+                .withDeduplicationKey("{{request.body}}"))
+        );
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void skipsAndCountsDuplicatesWithinTheWindow() throws Exception {
+        client.post("/payments", new StringEntity("payment-1", TEXT_PLAIN));
+        client.post("/payments", new StringEntity("payment-1", TEXT_PLAIN));
+        client.post("/payments", new StringEntity("payment-2", TEXT_PLAIN));
+        client.post("/payments", new StringEntity("payment-1", TEXT_PLAIN));
+
+        waitForCallbacks(2);
+        Thread.sleep(200);
+        assertThat(targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size(), is(2));
+        assertThat(webhooks.getMetrics().getDeduplicatedCount(), is(2L));
+    }
+
+    @Test
+    public void sendsTheWebhookAgainOnceTheWindowHasPassed() throws Exception {
+        client.post("/payments", new StringEntity("payment-1", TEXT_PLAIN));
+        waitForCallbacks(1);
+
+        Thread.sleep(600);
+        client.post("/payments", new StringEntity("payment-1", TEXT_PLAIN));
+
+        waitForCallbacks(2);
+        assertThat(webhooks.getMetrics().getDeduplicatedCount(), is(0L));
+    }
+
+    private void waitForCallbacks(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        int received = targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size();
+        while (received < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            received = targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size();
+        }
+        assertThat("Timed out waiting for callbacks", received, is(count));
+    }
+}
@@ -0,0 +1,125 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.RateLimit.rateLimit;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookDelayedCapacityTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks(
+        webhooksOptions()
+            .withDelayedCapacity(1)
+    );
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void dropsAndCountsDelayedWebhooksPreparedByTheCallerWhileTheTimerIsFull() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/delayed"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBody("event")
+                .withFixedDelay(500))
+        );
+
+        client.post("/delayed", new StringEntity("", TEXT_PLAIN));
+        waitForPendingDelayedCount(1);
+
+        // Rejected, so prepared on the serving thread, but the timer has no room for them either
+        client.post("/delayed", new StringEntity("", TEXT_PLAIN));
+        client.post("/delayed", new StringEntity("", TEXT_PLAIN));
+        Thread.sleep(100);
+
+        assertThat(webhooks.getRejectedWebhookCount(), is(2L));
+        assertThat(webhooks.getMetrics().getDroppedDelayedCount(), is(2L));
+        assertThat(webhooks.getMetrics().getPendingDelayedCount(), is(1));
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).isEmpty()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        assertThat(targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size(), is(1));
+    }
+
+    @Test
+    public void stopsCountingThrottledWebhooksDroppedFromTheFullTimerAsWaiting() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/limited"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/limited-callback")
+                .withBody("event")
+                .withRateLimit(rateLimit().withPermitsPerSecond(2).withBurst(1)))
+        );
+
+        // The first is sent, the second waits on the timer for its token and the third finds no room there
+        client.post("/limited", new StringEntity("", TEXT_PLAIN));
+        client.post("/limited", new StringEntity("", TEXT_PLAIN));
+        waitForPendingDelayedCount(1);
+        client.post("/limited", new StringEntity("", TEXT_PLAIN));
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (targetServer.findAll(postRequestedFor(urlPathEqualTo("/limited-callback"))).size() < 2
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+
+        assertThat(targetServer.findAll(postRequestedFor(urlPathEqualTo("/limited-callback"))).size(), is(2));
+        assertThat(webhooks.getMetrics().getDroppedDelayedCount(), is(1L));
+        assertThat(webhooks.getMetrics().getThrottledCount(), is(2L));
+        assertThat(webhooks.getMetrics().getThrottledWaitingCount(), is(0));
+    }
+
+    private void waitForPendingDelayedCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (webhooks.getMetrics().getPendingDelayedCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
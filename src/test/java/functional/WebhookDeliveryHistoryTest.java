@@ -0,0 +1,97 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.Webhooks.webhook;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.util.List;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.WebhookDelivery;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockResponse;
+import testsupport.WireMockTestClient;
+
+public class WebhookDeliveryHistoryTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks();
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(post(urlEqualTo("/accepted"))
+            .willReturn(aResponse().withStatus(202).withBody("thanks")));
+        targetServer.stubFor(post(urlEqualTo("/broken"))
+            .willReturn(aResponse().withStatus(500)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void recordsEachDeliveryAndFiltersThemViaTheAdminApi() throws Exception {
+        stubWebhook("/accepted-async", "/accepted");
+        stubWebhook("/broken-async", "/broken");
+
+        client.post("/accepted-async", new StringEntity("", TEXT_PLAIN));
+        client.post("/broken-async", new StringEntity("", TEXT_PLAIN));
+        waitForDeliveryCount(2);
+
+        List<WebhookDelivery> deliveries = webhooks.getDeliveries();
+        assertThat(deliveries.size(), is(2));
+
+        WireMockResponse response = client.get("/__admin/webhooks/deliveries?status=202");
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.content(), containsString("/accepted"));
+        assertThat(response.content(), containsString("\"response\" : \"thanks\""));
+        assertThat(response.content(), not(containsString("/broken")));
+
+        assertThat(client.get("/__admin/webhooks/deliveries?limit=1&offset=1").content(), containsString("\"limit\" : 1"));
+        assertThat(client.get("/__admin/webhooks/deliveries?status=abc").statusCode(), is(400));
+    }
+
+    private void stubWebhook(String path, String callbackPath) {
+        rule.stubFor(post(urlPathEqualTo(path))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + callbackPath)
+                .withBody("event"))
+        );
+    }
+
+    private void waitForDeliveryCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + SECONDS.toMillis(2);
+        while (webhooks.getDeliveries().size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.Webhooks.webhooks;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.RejectionPolicy;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookDispatchTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks(
+        webhooksOptions()
+            .withPoolSize(1)
+            .withQueueCapacity(1)
+            .withRejectionPolicy(RejectionPolicy.DROP_NEWEST)
+    );
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl())
+            .willReturn(aResponse().withStatus(200).withFixedDelay(500)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void dropsAndCountsWebhooksBeyondQueueCapacity() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withHeader("Content-Type", "text/plain")
+                .withBody("event"))
+        );
+
+        for (int i = 0; i < 5; i++) {
+            client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        }
+
+        waitForRejectedCount(3L);
+        assertThat(webhooks.getRejectedWebhookCount(), is(3L));
+    }
+
+    @Test
+    public void queuesDelayedWebhooksThatFallDueWhileThePoolIsBusyWithoutRejectingThem() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhooks(
+                webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                    .withBody("first")
+                    .withFixedDelay(100),
+                webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                    .withBody("second")
+                    .withFixedDelay(100),
+                webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                    .withBody("third")
+                    .withFixedDelay(100)))
+        );
+
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+
+        long deadline = System.currentTimeMillis() + 3000;
+        while (targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size() < 3
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size(), is(3));
+        assertThat(webhooks.getRejectedWebhookCount(), is(0L));
+    }
+
+    private void waitForRejectedCount(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (webhooks.getRejectedWebhookCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
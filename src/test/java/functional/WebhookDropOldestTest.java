@@ -0,0 +1,104 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.RejectionPolicy;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookDropOldestTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks(
+        webhooksOptions()
+            .withTemplating(true)
+            .withPoolSize(1)
+            .withQueueCapacity(1)
+            .withRejectionPolicy(RejectionPolicy.DROP_OLDEST)
+    );
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl())
+            .willReturn(aResponse().withStatus(200).withFixedDelay(300)));
+        client = new WireMockTestClient(rule.port());
+
+        rule.stubFor(post(urlPathEqualTo("/unordered"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/unordered-callback")
+                .withBody("event"))
+        );
+        rule.stubFor(post(urlPathEqualTo("/ordered"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/ordered-callback")
+                .withBody("{{request.body}}")
+                .withOrderingKey("same"))
+        );
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void neverDropsAnOrderedWebhookThatHoldsItsLane() throws Exception {
+        client.post("/unordered", new StringEntity("", TEXT_PLAIN));
+        Thread.sleep(50);
+        // Queued behind the webhook being sent, holding the lane
+        client.post("/ordered", new StringEntity("first", TEXT_PLAIN));
+        Thread.sleep(50);
+        // Finds the queue full; the only queued task holds a lane, so this one is dropped instead
+        client.post("/unordered", new StringEntity("", TEXT_PLAIN));
+
+        waitForCallbacks("/ordered-callback", 1);
+        client.post("/ordered", new StringEntity("second", TEXT_PLAIN));
+        waitForCallbacks("/ordered-callback", 2);
+
+        assertThat(targetServer.findAll(postRequestedFor(urlPathEqualTo("/ordered-callback"))).size(), is(2));
+        assertThat(targetServer.findAll(postRequestedFor(urlPathEqualTo("/unordered-callback"))).size(), is(1));
+        assertThat(webhooks.getRejectedWebhookCount(), is(1L));
+        assertThat(webhooks.getMetrics().getOrderedWaitingCount(), is(0));
+    }
+
+    private void waitForCallbacks(String path, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (targetServer.findAll(postRequestedFor(urlPathEqualTo(path))).size() < count
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
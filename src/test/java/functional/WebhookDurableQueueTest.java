@@ -0,0 +1,134 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wiremock.webhooks.Webhooks;
+import org.wiremock.webhooks.WebhooksOptions;
+import testsupport.WireMockTestClient;
+
+import java.io.File;
+import java.util.List;
+
+public class WebhookDurableQueueTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    File journalDirectory;
+    WireMockRule rule;
+    WireMockTestClient client;
+
+    @Before
+    public void init() throws Exception {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        journalDirectory = folder.newFolder("webhooks");
+    }
+
+    @Test
+    public void replaysPendingWebhooksFromTheJournalOnStartup() throws Exception {
+        Webhooks webhooks = new Webhooks(durableOptions());
+        rule = new WireMockRule(options().dynamicPort().extensions(webhooks));
+        rule.start();
+        try {
+            client = new WireMockTestClient(rule.port());
+            rule.stubFor(post(urlPathEqualTo("/something-async"))
+                .willReturn(aResponse().withStatus(200))
+                .withPostServeAction("webhook", webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                    .withHeader("Content-Type", "text/plain")
+                    .withBody("durable")
+                    .withFixedDelay(1000))
+            );
+
+            client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+            waitForScheduledCount(webhooks, 1);
+        } finally {
+            rule.stop();
+            webhooks.shutdown(100, MILLISECONDS);
+        }
+        assertThat(callbackCount(), is(0));
+
+        Webhooks restarted = new Webhooks(durableOptions());
+        try {
+            assertThat(restarted.getMetrics().getScheduledCount(), is(1L));
+
+            waitForCallbackCount(1);
+            Thread.sleep(200);
+            List<LoggedRequest> callbacks = targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback")));
+            assertThat(callbacks.size(), is(1));
+            assertThat(callbacks.get(0).getBodyAsString(), is("durable"));
+            assertThat(callbacks.get(0).getHeader("Content-Type"), is("text/plain"));
+        } finally {
+            restarted.shutdown();
+        }
+
+        Webhooks afterDelivery = new Webhooks(durableOptions());
+        try {
+            assertThat(afterDelivery.getMetrics().getScheduledCount(), is(0L));
+        } finally {
+            afterDelivery.shutdown();
+        }
+    }
+
+    @Test
+    public void refusesAJournalDirectoryThatIsAlreadyInUse() {
+        Webhooks webhooks = new Webhooks(durableOptions());
+        try {
+            new Webhooks(durableOptions());
+            fail("Expected the journal directory to be refused while in use");
+        } catch (IllegalStateException expected) {
+        } finally {
+            webhooks.shutdown();
+        }
+
+        new Webhooks(durableOptions()).shutdown();
+    }
+
+    private WebhooksOptions durableOptions() {
+        return webhooksOptions()
+            .withDurableQueue(journalDirectory);
+    }
+
+    private int callbackCount() {
+        return targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size();
+    }
+
+    private void waitForCallbackCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (callbackCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void waitForScheduledCount(Webhooks webhooks, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (webhooks.getMetrics().getScheduledCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
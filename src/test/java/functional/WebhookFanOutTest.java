@@ -0,0 +1,165 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.RepeatPolicy.repeatPolicy;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.Webhooks.webhooks;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+import java.util.List;
+
+public class WebhookFanOutTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks();
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void firesEveryWebhookInAGroup() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhooks(
+                webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/a")
+                    .withBody("first"),
+                webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/b")
+                    .withBody("second")))
+        );
+
+        client.post("/something-async", null);
+
+        assertThat(waitForCallback("/a").getBodyAsString(), is("first"));
+        assertThat(waitForCallback("/b").getBodyAsString(), is("second"));
+    }
+
+    @Test
+    public void sendsEachWebhookInASequenceOnceThePreviousOneIsDelivered() throws Exception {
+        targetServer.stubFor(post(urlEqualTo("/first")).willReturn(aResponse().withStatus(200).withFixedDelay(300)));
+
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhooks(
+                webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/first")
+                    .withBody("first"),
+                webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/second")
+                    .withBody("second"))
+                .inSequence())
+        );
+
+        client.post("/something-async", null);
+
+        LoggedRequest first = waitForCallback("/first");
+        LoggedRequest second = waitForCallback("/second");
+        assertThat(second.getLoggedDate().getTime() - first.getLoggedDate().getTime(), greaterThanOrEqualTo(300L));
+    }
+
+    @Test
+    public void stopsASequenceWhenAWebhookFails() throws Exception {
+        targetServer.stubFor(post(urlEqualTo("/first")).willReturn(aResponse().withStatus(500)));
+
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhooks(
+                webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/first")
+                    .withBody("first"),
+                webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/second")
+                    .withBody("second"))
+                .inSequence())
+        );
+
+        client.post("/something-async", null);
+
+        waitForCallback("/first");
+        Thread.sleep(300);
+        assertThat(targetServer.findAll(postRequestedFor(urlEqualTo("/second"))).size(), is(0));
+    }
+
+    @Test
+    public void repeatsAWebhookInASequenceBeforeMovingOn() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhooks(
+                webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/first")
+                    .withBody("first")
+                    .withRepeat(repeatPolicy().withCount(3).withIntervalMillis(100)),
+                webhook()
+                    .withMethod(POST)
+                    .withUrl("http://localhost:" + targetServer.port() + "/second")
+                    .withBody("second"))
+                .inSequence())
+        );
+
+        client.post("/something-async", null);
+
+        LoggedRequest second = waitForCallback("/second");
+        List<LoggedRequest> first = targetServer.findAll(postRequestedFor(urlEqualTo("/first")));
+        assertThat(first.size(), is(3));
+        for (LoggedRequest repeated: first) {
+            assertThat(second.getLoggedDate().compareTo(repeated.getLoggedDate()), greaterThanOrEqualTo(0));
+        }
+    }
+
+    private LoggedRequest waitForCallback(String path) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        List<LoggedRequest> callbacks = targetServer.findAll(postRequestedFor(urlPathEqualTo(path)));
+        while (callbacks.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            callbacks = targetServer.findAll(postRequestedFor(urlPathEqualTo(path)));
+        }
+        assertThat("Timed out waiting for a request to " + path, callbacks.size(), is(1));
+        return callbacks.get(0);
+    }
+}
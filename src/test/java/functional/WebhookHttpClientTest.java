@@ -0,0 +1,153 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.util.ArrayList;
+import java.util.List;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.WebhookDelivery;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookHttpClientTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks(
+        webhooksOptions()
+            .withPoolSize(4)
+            .withMaxConnectionsPerRoute(1)
+            .withSocketTimeoutMillis(300)
+            .withConnectionRequestTimeoutMillis(100)
+    );
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+    String previousProxyHost;
+    String previousProxyPort;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl())
+            .willReturn(aResponse().withStatus(200)));
+        targetServer.stubFor(post(urlEqualTo("/slow"))
+            .willReturn(aResponse().withStatus(200).withFixedDelay(1000)));
+        targetServer.stubFor(post(urlEqualTo("/held"))
+            .willReturn(aResponse().withStatus(200).withFixedDelay(200)));
+        client = new WireMockTestClient(rule.port());
+        previousProxyHost = System.getProperty("http.proxyHost");
+        previousProxyPort = System.getProperty("http.proxyPort");
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @After
+    public void restoreProxy() {
+        restore("http.proxyHost", previousProxyHost);
+        restore("http.proxyPort", previousProxyPort);
+    }
+
+    @Test
+    public void givesUpOnResponsesSlowerThanTheSocketTimeout() throws Exception {
+        stubWebhook("/slow-async", "http://localhost:" + targetServer.port() + "/slow");
+
+        client.post("/slow-async", new StringEntity("", TEXT_PLAIN));
+        waitForDeliveryCount(1);
+
+        List<WebhookDelivery> deliveries = webhooks.getDeliveries();
+        assertThat(deliveries.size(), is(1));
+        assertThat(deliveries.get(0).getStatus(), nullValue());
+        assertThat(deliveries.get(0).getError(), containsString("timed out"));
+    }
+
+    @Test
+    public void sharesTheConnectionsPerRouteBetweenConcurrentWebhooks() throws Exception {
+        stubWebhook("/held-async", "http://localhost:" + targetServer.port() + "/held");
+
+        client.post("/held-async", new StringEntity("", TEXT_PLAIN));
+        client.post("/held-async", new StringEntity("", TEXT_PLAIN));
+        waitForDeliveryCount(2);
+
+        List<Integer> statuses = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (WebhookDelivery delivery: webhooks.getDeliveries()) {
+            if (delivery.getStatus() != null) {
+                statuses.add(delivery.getStatus());
+            } else {
+                errors.add(delivery.getError());
+            }
+        }
+        assertThat(statuses.size(), is(1));
+        assertThat(errors.size(), is(1));
+        assertThat(errors.get(0), containsString("Timeout waiting for connection from pool"));
+    }
+
+    @Test
+    public void sendsThroughTheProxyConfiguredBySystemProperties() throws Exception {
+        System.setProperty("http.proxyHost", "localhost");
+        System.setProperty("http.proxyPort", String.valueOf(targetServer.port()));
+        stubWebhook("/proxied-async", "http://webhook-target.invalid/proxied");
+
+        client.post("/proxied-async", new StringEntity("", TEXT_PLAIN));
+        waitForDeliveryCount(1);
+
+        assertThat(webhooks.getDeliveries().get(0).getStatus(), is(200));
+        assertThat(targetServer.findAll(anyRequestedFor(urlPathEqualTo("/proxied"))).size(), is(1));
+    }
+
+    private void stubWebhook(String path, String callbackUrl) {
+        rule.stubFor(post(urlPathEqualTo(path))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl(callbackUrl)
+                .withBody("event"))
+        );
+    }
+
+    private void waitForDeliveryCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + SECONDS.toMillis(3);
+        while (webhooks.getDeliveries().size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void restore(String name, String value) {
+        if (value == null) {
+            System.clearProperty(name);
+        } else {
+            System.setProperty(name, value);
+        }
+    }
+}
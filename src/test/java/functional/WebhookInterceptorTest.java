@@ -0,0 +1,159 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.BatchPolicy.batchPolicy;
+import static org.wiremock.webhooks.RateLimit.rateLimit;
+import static org.wiremock.webhooks.RepeatPolicy.repeatPolicy;
+import static org.wiremock.webhooks.RetryPolicy.retryPolicy;
+import static org.wiremock.webhooks.SignaturePolicy.signaturePolicy;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+import static testsupport.TestHttpHeader.withHeader;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.StageTiming;
+import org.wiremock.webhooks.WebhookDefinition;
+import org.wiremock.webhooks.Webhooks;
+import org.wiremock.webhooks.interceptors.WebhookInterceptor;
+import testsupport.WireMockTestClient;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class WebhookInterceptorTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    volatile String interceptorThread;
+
+    WebhookInterceptor vetoSkipped = new WebhookInterceptor() {
+        @Override
+        public List<WebhookDefinition> intercept(ServeEvent serveEvent, WebhookDefinition webhookDefinition) {
+            interceptorThread = Thread.currentThread().getName();
+            return serveEvent.getRequest().containsHeader("X-Skip")
+                ? Collections.<WebhookDefinition>emptyList()
+                : Collections.singletonList(webhookDefinition);
+        }
+    };
+
+    WebhookInterceptor fanOut = new WebhookInterceptor() {
+        @Override
+        public List<WebhookDefinition> intercept(ServeEvent serveEvent, WebhookDefinition webhookDefinition) {
+            String url = webhookDefinition.getUrl().toString();
+            return Arrays.asList(
+                webhookDefinition.copy().withUrl(url + "/a"),
+                webhookDefinition.withUrl(url + "/b")
+            );
+        }
+    };
+
+    Webhooks webhooks = new Webhooks(
+        webhooksOptions()
+            .withInterceptor(vetoSkipped)
+            .withInterceptor(fanOut)
+    );
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        client = new WireMockTestClient(rule.port());
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withHeader("Content-Type", "text/plain")
+                .withBody("intercepted"))
+        );
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void fansOutAndVetoesWebhooksOffTheRequestThread() throws Exception {
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN), withHeader("X-Skip", "true"));
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+
+        waitForCallbackCount("/callback/a", 1);
+        waitForCallbackCount("/callback/b", 1);
+        Thread.sleep(100);
+        assertThat(callbackCount("/callback/a"), is(1));
+        assertThat(callbackCount("/callback/b"), is(1));
+        assertThat(interceptorThread, startsWith("webhook-dispatch"));
+
+        Map<String, StageTiming> timings = webhooks.getMetrics().getStageTimings();
+        StageTiming veto = timings.get(vetoSkipped.getClass().getName());
+        assertThat(veto.getCount(), is(2L));
+        assertThat(veto.getVetoed(), is(1L));
+        assertThat(timings.get(fanOut.getClass().getName()).getCount(), is(1L));
+    }
+
+    @Test
+    public void copiesPoliciesSoThatChangingACopyLeavesTheOriginalAsItWas() {
+        WebhookDefinition original = webhook()
+            .withMethod(POST)
+            .withUrl("http://localhost:" + targetServer.port() + "/callback")
+            .withRetry(retryPolicy())
+            .withBatch(batchPolicy())
+            .withRateLimit(rateLimit().withPermitsPerSecond(10))
+            .withRepeat(repeatPolicy().withCount(2))
+            .withSignature(signaturePolicy().withSecret("secret"));
+
+        WebhookDefinition copy = original.copy();
+        copy.getRetry().withMaxAttempts(1).withRetryOnStatus(503);
+        copy.getBatch().withMaxSize(1);
+        copy.getRateLimit().withPermitsPerSecond(1);
+        copy.getRepeat().withCount(5);
+        copy.getSignature().withSecret("changed");
+
+        assertThat(original.getRetry().getMaxAttempts(), is(3));
+        assertThat(original.getRetry().getRetryOnStatus().size(), is(5));
+        assertThat(original.getBatch().getMaxSize(), is(100));
+        assertThat(original.getRateLimit().getPermitsPerSecond(), is(10.0));
+        assertThat(original.getRepeat().getCount(), is(2));
+        assertThat(original.getSignature().getSecret(), is("secret"));
+    }
+
+    private int callbackCount(String path) {
+        return targetServer.findAll(postRequestedFor(urlPathEqualTo(path))).size();
+    }
+
+    private void waitForCallbackCount(String path, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (callbackCount(path) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
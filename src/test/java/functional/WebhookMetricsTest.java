@@ -0,0 +1,132 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockResponse;
+import testsupport.WireMockTestClient;
+
+public class WebhookMetricsTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks();
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl())
+            .willReturn(aResponse().withStatus(200)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void countsSuccessfulWebhooksAndExposesThemViaTheAdminApi() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBody("event"))
+        );
+
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        waitForSucceededCount(1L);
+
+        assertThat(webhooks.getMetrics().getScheduledCount(), is(1L));
+        assertThat(webhooks.getMetrics().getSucceededCount(), is(1L));
+        assertThat(webhooks.getMetrics().getHttpLatencyByTarget().get("localhost:" + targetServer.port()).getCount(), is(1L));
+
+        WireMockResponse response = client.get("/__admin/webhooks/metrics");
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.content(), containsString("\"succeededCount\" : 1"));
+    }
+
+    @Test
+    public void registersMetricsWithJmxOnlyWhenEnabledAndUntilShutDown() throws Exception {
+        int registered = registeredMBeanCount();
+
+        Webhooks withoutJmx = new Webhooks();
+        assertThat(registeredMBeanCount(), is(registered));
+        withoutJmx.shutdown();
+
+        Webhooks withJmx = new Webhooks(webhooksOptions().withJmxMetrics(true));
+        assertThat(registeredMBeanCount(), is(registered + 1));
+
+        withJmx.shutdown();
+        assertThat(registeredMBeanCount(), is(registered));
+    }
+
+    @Test
+    public void registersMetricsWithJmxUnderTheChosenName() throws Exception {
+        ObjectName name = new ObjectName("org.wiremock.webhooks:type=WebhookMetrics,name=metrics-test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        Webhooks withJmx = new Webhooks(webhooksOptions().withJmxMetrics(true).withJmxName("metrics-test"));
+        try {
+            assertThat(server.isRegistered(name), is(true));
+            assertThat(server.getAttribute(name, "SucceededCount"), is((Object) 0L));
+        } finally {
+            withJmx.shutdown();
+        }
+        assertThat(server.isRegistered(name), is(false));
+    }
+
+    @Test
+    public void refusesJmxNamesThatAreNotValidObjectNameValues() {
+        try {
+            webhooksOptions().withJmxName("orders,type=other");
+            fail("Expected a name with a key separator to be refused");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private int registeredMBeanCount() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        return server.queryNames(new ObjectName("org.wiremock.webhooks:type=WebhookMetrics,*"), null).size();
+    }
+
+    private void waitForSucceededCount(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + SECONDS.toMillis(2);
+        while (webhooks.getMetrics().getSucceededCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
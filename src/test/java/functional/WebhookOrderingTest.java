@@ -0,0 +1,124 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.Webhooks.webhook;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class WebhookOrderingTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    // Templating is left off, as the ordering key is rendered regardless
+    Webhooks webhooks = new Webhooks();
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        targetServer.stubFor(post(urlPathEqualTo("/events"))
+            .withRequestBody(equalTo("created"))
+            .willReturn(aResponse().withStatus(200).withFixedDelay(300)));
+        client = new WireMockTestClient(rule.port());
+
+        stubOrderEvent("created");
+        stubOrderEvent("paid");
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void deliversWebhooksWithTheSameKeyOneAtATimeInOrder() throws Exception {
+        client.post("/orders/1", new StringEntity("created", TEXT_PLAIN));
+        // WireMock only runs post-serve actions once the response has gone, so give the first one a head start
+        Thread.sleep(50);
+        client.post("/orders/1", new StringEntity("paid", TEXT_PLAIN));
+
+        List<LoggedRequest> events = waitForCallbacks("/events", 2);
+        assertThat(events.get(0).getBodyAsString(), is("created"));
+        assertThat(events.get(1).getBodyAsString(), is("paid"));
+        assertThat(events.get(1).getLoggedDate().getTime() - events.get(0).getLoggedDate().getTime(),
+            greaterThanOrEqualTo(300L));
+    }
+
+    @Test
+    public void deliversWebhooksWithDifferentKeysInParallel() throws Exception {
+        client.post("/orders/1", new StringEntity("created", TEXT_PLAIN));
+        client.post("/orders/2", new StringEntity("created", TEXT_PLAIN));
+
+        List<LoggedRequest> events = waitForCallbacks("/events", 2);
+        assertThat(events.get(1).getLoggedDate().getTime() - events.get(0).getLoggedDate().getTime(),
+            lessThan(300L));
+    }
+
+    private void stubOrderEvent(String event) {
+        rule.stubFor(post(urlPathMatching("/orders/.*"))
+            .withRequestBody(equalTo(event))
+            .willReturn(aResponse().withStatus(202))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/events")
+                .withBody(event)
+                .withOrderingKey("{{request.pathSegments.[1]}}"))
+        );
+    }
+
+    private List<LoggedRequest> waitForCallbacks(String path, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        List<LoggedRequest> callbacks = targetServer.findAll(postRequestedFor(urlPathEqualTo(path)));
+        while (callbacks.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            callbacks = targetServer.findAll(postRequestedFor(urlPathEqualTo(path)));
+        }
+        assertThat("Timed out waiting for requests to " + path, callbacks.size(), is(count));
+
+        // Requests are journaled once they have been responded to, so sort them by when they arrived
+        List<LoggedRequest> received = new ArrayList<>(callbacks);
+        Collections.sort(received, new Comparator<LoggedRequest>() {
+            @Override
+            public int compare(LoggedRequest a, LoggedRequest b) {
+                return a.getLoggedDate().compareTo(b.getLoggedDate());
+            }
+        });
+        return received;
+    }
+}
@@ -0,0 +1,150 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.RateLimit.rateLimit;
+import static org.wiremock.webhooks.Webhooks.webhook;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.WebhookDefinition;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookRateLimitTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks();
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void holdsBackWebhooksBeyondTheTargetRate() throws Exception {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        stubWebhook(callback().withRateLimit(rateLimit().withPermitsPerSecond(5).withBurst(1)));
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 4; i++) {
+            client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        }
+
+        waitForCallbackCount(4);
+        assertThat(callbackCount(), is(4));
+        assertThat(System.currentTimeMillis() - start, greaterThanOrEqualTo(550L));
+        assertThat(webhooks.getMetrics().getThrottledCount(), is(3L));
+        assertThat(webhooks.getMetrics().getThrottledWaitingCount(), is(0));
+    }
+
+    @Test
+    public void queuesWebhooksBeyondTheMaxInFlight() throws Exception {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200).withFixedDelay(200)));
+        stubWebhook(callback().withRateLimit(rateLimit().withMaxInFlight(1)));
+
+        for (int i = 0; i < 3; i++) {
+            client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        }
+
+        waitForCallbackCount(3);
+        assertThat(callbackCount(), is(3));
+        assertThat(webhooks.getMetrics().getThrottledCount(), is(2L));
+    }
+
+    @Test
+    public void appliesADefinitionsOwnLimitEvenWhenTheTargetAlreadyHasALimiter() throws Exception {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        rule.stubFor(post(urlPathEqualTo("/unlimited"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", callback().withRateLimit(rateLimit().withPermitsPerSecond(1000))));
+        stubWebhook(callback().withRateLimit(rateLimit().withPermitsPerSecond(5).withBurst(1)));
+
+        client.post("/unlimited", new StringEntity("", TEXT_PLAIN));
+        waitForCallbackCount(1);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 4; i++) {
+            client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        }
+
+        waitForCallbackCount(5);
+        assertThat(callbackCount(), is(5));
+        assertThat(System.currentTimeMillis() - start, greaterThanOrEqualTo(550L));
+    }
+
+    @Test
+    public void stopsCountingWebhooksStillWaitingForAPermitOnceShutDown() throws Exception {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        stubWebhook(callback().withRateLimit(rateLimit().withPermitsPerSecond(1).withBurst(1)));
+
+        for (int i = 0; i < 3; i++) {
+            client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        }
+        long deadline = System.currentTimeMillis() + 2000;
+        while (webhooks.getMetrics().getThrottledWaitingCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(webhooks.getMetrics().getThrottledWaitingCount(), is(2));
+
+        webhooks.shutdown(100, MILLISECONDS);
+
+        assertThat(webhooks.getMetrics().getThrottledWaitingCount(), is(0));
+    }
+
+    private WebhookDefinition callback() {
+        return webhook()
+            .withMethod(POST)
+            .withUrl("http://localhost:" + targetServer.port() + "/callback")
+            .withHeader("Content-Type", "text/plain")
+            .withBody("limited");
+    }
+
+    private void stubWebhook(WebhookDefinition definition) {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", definition)
+        );
+    }
+
+    private int callbackCount() {
+        return targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size();
+    }
+
+    private void waitForCallbackCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (callbackCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
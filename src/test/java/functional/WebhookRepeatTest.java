@@ -0,0 +1,186 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.wiremock.webhooks.RepeatPolicy.repeatPolicy;
+import static org.wiremock.webhooks.Webhooks.webhook;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.ActiveWebhookStream;
+import org.wiremock.webhooks.RepeatPolicy;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockResponse;
+import testsupport.WireMockTestClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class WebhookRepeatTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks();
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void sendsTheWebhookTheConfiguredNumberOfTimesAtTheInterval() throws Exception {
+        stubRepeatingWebhook(repeatPolicy().withCount(3).withIntervalMillis(100));
+
+        client.post("/something-async", null);
+
+        List<LoggedRequest> callbacks = waitForCallbacks(3);
+        for (int i = 1; i < callbacks.size(); i++) {
+            long gap = callbacks.get(i).getLoggedDate().getTime() - callbacks.get(i - 1).getLoggedDate().getTime();
+            assertThat(gap, greaterThanOrEqualTo(80L));
+        }
+
+        Thread.sleep(300);
+        assertThat(callbackCount(), is(3));
+        assertThat(webhooks.getActiveStreams().isEmpty(), is(true));
+    }
+
+    @Test
+    public void keepsSendingUntilCancelledThroughTheAdminApi() throws Exception {
+        stubRepeatingWebhook(repeatPolicy().untilCancelled().withIntervalMillis(50));
+
+        client.post("/something-async", null);
+        waitForCallbacks(3);
+
+        List<ActiveWebhookStream> streams = webhooks.getActiveStreams();
+        assertThat(streams.size(), is(1));
+        WireMockResponse listed = client.get("/__admin/webhooks/streams");
+        assertThat(listed.content(), containsString(streams.get(0).getId().toString()));
+
+        assertThat(client.delete("/__admin/webhooks/streams/" + streams.get(0).getId()).statusCode(), is(200));
+        Thread.sleep(100);
+        int sent = callbackCount();
+        Thread.sleep(200);
+
+        assertThat(callbackCount(), is(sent));
+        assertThat(webhooks.getActiveStreams().isEmpty(), is(true));
+        assertThat(client.delete("/__admin/webhooks/streams/" + streams.get(0).getId()).statusCode(), is(404));
+    }
+
+    @Test
+    public void skipsSendsThatFallDueWhileASlowTargetIsStillAnswering() throws Exception {
+        targetServer.stubFor(post(urlEqualTo("/progress"))
+            .willReturn(aResponse().withStatus(200).withFixedDelay(300)));
+        stubRepeatingWebhook(repeatPolicy().untilCancelled().withIntervalMillis(50));
+
+        client.post("/something-async", null);
+        Thread.sleep(1000);
+
+        ActiveWebhookStream stream = webhooks.getActiveStreams().get(0);
+        assertThat(stream.getSent(), lessThanOrEqualTo(4));
+        assertThat(webhooks.getMetrics().getQueueDepth(), is(0));
+        assertThat(webhooks.getMetrics().getActiveThreads(), lessThanOrEqualTo(1));
+        webhooks.cancelStream(stream.getId());
+    }
+
+    @Test
+    public void cancelsEveryStreamThroughTheAdminApi() throws Exception {
+        stubRepeatingWebhook(repeatPolicy().untilCancelled().withIntervalMillis(50));
+
+        client.post("/something-async", null);
+        client.post("/something-async", null);
+        waitForCallbacks(2);
+        assertThat(webhooks.getActiveStreams().size(), is(2));
+
+        assertThat(client.delete("/__admin/webhooks/streams").statusCode(), is(200));
+
+        assertThat(webhooks.getActiveStreams().isEmpty(), is(true));
+    }
+
+    @Test
+    public void refusesRepeatPoliciesThatWouldNotRepeatAtARate() {
+        try {
+            repeatPolicy().withCount(0);
+            fail("Expected a count of zero to be refused");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            repeatPolicy().withIntervalMillis(0);
+            fail("Expected an interval of zero to be refused");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            repeatPolicy().withRatePerSecond(-1);
+            fail("Expected a negative rate to be refused");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private void stubRepeatingWebhook(RepeatPolicy repeat) {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/progress")
+                .withBody("tick")
+                .withRepeat(repeat))
+        );
+    }
+
+    private int callbackCount() {
+        return targetServer.findAll(postRequestedFor(urlEqualTo("/progress"))).size();
+    }
+
+    private List<LoggedRequest> waitForCallbacks(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        List<LoggedRequest> callbacks = targetServer.findAll(postRequestedFor(urlEqualTo("/progress")));
+        while (callbacks.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            callbacks = targetServer.findAll(postRequestedFor(urlEqualTo("/progress")));
+        }
+        assertThat("Timed out waiting for " + count + " callbacks", callbacks.size(), greaterThanOrEqualTo(count));
+
+        List<LoggedRequest> received = new ArrayList<>(callbacks);
+        Collections.sort(received, new Comparator<LoggedRequest>() {
+            @Override
+            public int compare(LoggedRequest a, LoggedRequest b) {
+                return a.getLoggedDate().compareTo(b.getLoggedDate());
+            }
+        });
+        return received;
+    }
+}
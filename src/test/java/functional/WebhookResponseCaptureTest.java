@@ -0,0 +1,148 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.RetryPolicy.retryPolicy;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.util.List;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.WebhookDelivery;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookResponseCaptureTest {
+
+    private static final String CHUNK = "0123456789abcdef";
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    // A single pooled connection, so every webhook after the first needs the previous response to
+    // have been read to the end and its connection handed back
+    Webhooks webhooks = new Webhooks(
+        webhooksOptions()
+            .withResponseCaptureLimit(20)
+            .withMaxConnections(1)
+            .withMaxConnectionsPerRoute(1)
+            .withConnectionRequestTimeoutMillis(1000)
+    );
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        StringBuilder largeBody = new StringBuilder();
+        for (int i = 0; i < 65536; i++) {
+            largeBody.append(CHUNK);
+        }
+        targetServer.stubFor(post(urlEqualTo("/large"))
+            .willReturn(aResponse().withStatus(200).withBody(largeBody.toString())));
+        targetServer.stubFor(post(urlEqualTo("/empty"))
+            .willReturn(aResponse().withStatus(204)));
+        targetServer.stubFor(post(urlEqualTo("/malformed"))
+            .willReturn(aResponse().withStatus(200).withFault(Fault.MALFORMED_RESPONSE_CHUNK)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void capturesUpToTheLimitAndDrainsTheRestOfTheResponse() throws Exception {
+        stubWebhook("/large-async", "/large");
+
+        for (int i = 0; i < 3; i++) {
+            client.post("/large-async", new StringEntity("", TEXT_PLAIN));
+        }
+        waitForDeliveryCount(3);
+
+        List<WebhookDelivery> deliveries = webhooks.getDeliveries();
+        assertThat(deliveries.size(), is(3));
+        for (WebhookDelivery delivery: deliveries) {
+            assertThat(delivery.getError(), nullValue());
+            assertThat(delivery.getStatus(), is(200));
+            assertThat(delivery.getResponse(), is(CHUNK + "0123"));
+        }
+    }
+
+    @Test
+    public void recordsNoResponseForAnEmptyBody() throws Exception {
+        stubWebhook("/empty-async", "/empty");
+
+        client.post("/empty-async", new StringEntity("", TEXT_PLAIN));
+        waitForDeliveryCount(1);
+
+        List<WebhookDelivery> deliveries = webhooks.getDeliveries();
+        assertThat(deliveries.size(), is(1));
+        assertThat(deliveries.get(0).getStatus(), is(204));
+        assertThat(deliveries.get(0).getResponse(), nullValue());
+    }
+
+    @Test
+    public void countsAnAcceptedWebhookOnceEvenIfItsResponseCannotBeRead() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/malformed-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/malformed")
+                .withBody("event")
+                .withRetry(retryPolicy().withBaseDelayMillis(10)))
+        );
+
+        client.post("/malformed-async", new StringEntity("", TEXT_PLAIN));
+        waitForDeliveryCount(1);
+        Thread.sleep(200);
+
+        List<WebhookDelivery> deliveries = webhooks.getDeliveries();
+        assertThat(deliveries.size(), is(1));
+        assertThat(deliveries.get(0).getStatus(), is(200));
+        assertThat(webhooks.getMetrics().getSucceededCount(), is(1L));
+        assertThat(webhooks.getMetrics().getFailedCount(), is(0L));
+        assertThat(webhooks.getMetrics().getRetriedCount(), is(0L));
+        assertThat(targetServer.findAll(postRequestedFor(urlEqualTo("/malformed"))).size(), is(1));
+    }
+
+    private void stubWebhook(String path, String callbackPath) {
+        rule.stubFor(post(urlPathEqualTo(path))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + callbackPath)
+                .withBody("event"))
+        );
+    }
+
+    private void waitForDeliveryCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + SECONDS.toMillis(5);
+        while (webhooks.getDeliveries().size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
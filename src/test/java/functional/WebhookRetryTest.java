@@ -0,0 +1,141 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.wiremock.webhooks.RetryPolicy.retryPolicy;
+import static org.wiremock.webhooks.Webhooks.webhook;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestListener;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.util.concurrent.CountDownLatch;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookRetryTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks();
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    CountDownLatch latch;
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.addMockServiceRequestListener(new RequestListener() {
+            @Override
+            public void requestReceived(Request request, Response response) {
+                if (request.getUrl().startsWith("/callback") && response.getStatus() == 200) {
+                    latch.countDown();
+                }
+            }
+        });
+        latch = new CountDownLatch(1);
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void retriesFailedWebhookUntilItSucceeds() throws Exception {
+        targetServer.stubFor(post(urlEqualTo("/callback")).inScenario("flaky")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(503))
+            .willSetStateTo("failed-once"));
+        targetServer.stubFor(post(urlEqualTo("/callback")).inScenario("flaky")
+            .whenScenarioStateIs("failed-once")
+            .willReturn(aResponse().withStatus(500))
+            .willSetStateTo("recovered"));
+        targetServer.stubFor(post(urlEqualTo("/callback")).inScenario("flaky")
+            .whenScenarioStateIs("recovered")
+            .willReturn(aResponse().withStatus(200)));
+
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBody("event")
+                .withRetry(retryPolicy()
+                    .withMaxAttempts(3)
+                    .withBaseDelayMillis(10)))
+        );
+
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+
+        latch.await(2, SECONDS);
+        assertThat("Timed out waiting for a successful webhook", latch.getCount(), is(0L));
+        assertThat(callbackCountWhenSettled(3), is(3));
+    }
+
+    @Test
+    public void refusesRetryPoliciesThatCouldNotBeFollowed() {
+        try {
+            retryPolicy().withMaxAttempts(0);
+            fail("Expected zero max attempts to be refused");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            retryPolicy().withBaseDelayMillis(-1);
+            fail("Expected a negative base delay to be refused");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            retryPolicy().withJitter(1.5);
+            fail("Expected a jitter above 1 to be refused");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            retryPolicy().withRetryOnStatus(200, 503);
+            fail("Expected retrying a 2xx status to be refused");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            webhook().withRetry(retryPolicy().withBaseDelayMillis(20000).withMaxDelayMillis(1000));
+            fail("Expected a max delay below the base delay to be refused");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        // The delays are only compared once the policy is complete, so they can be raised in either order
+        webhook().withRetry(retryPolicy().withBaseDelayMillis(20000).withMaxDelayMillis(60000));
+    }
+
+    private int callbackCountWhenSettled(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        int count = targetServer.findAll(postRequestedFor(urlEqualTo("/callback"))).size();
+        while (count < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            count = targetServer.findAll(postRequestedFor(urlEqualTo("/callback"))).size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,94 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.SchedulerBackend;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookSchedulerTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks(
+        webhooksOptions()
+            .withSchedulerBackend(SchedulerBackend.HASHED_WHEEL)
+            .withTimerTickMillis(5)
+            .withTimerWheelSize(16)
+    );
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void firesDelayedWebhooksFromTheHashedWheelOnceDue() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withHeader("Content-Type", "text/plain")
+                .withBody("delayed")
+                .withFixedDelay(300))
+        );
+
+        for (int i = 0; i < 3; i++) {
+            client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        }
+
+        Thread.sleep(100);
+        assertThat(callbackCount(), is(0));
+        assertThat(webhooks.getMetrics().getPendingDelayedCount(), is(3));
+
+        waitForCallbackCount(3);
+        assertThat(callbackCount(), is(3));
+        assertThat(webhooks.getMetrics().getPendingDelayedCount(), is(0));
+    }
+
+    private int callbackCount() {
+        return targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback"))).size();
+    }
+
+    private void waitForCallbackCount(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (callbackCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.Webhooks.webhook;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.WebhookDefinition;
+import org.wiremock.webhooks.WebhookShutdownReport;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+public class WebhookShutdownTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks();
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @Test
+    public void waitsForInFlightWebhooksToBeDelivered() throws Exception {
+        targetServer.stubFor(post(urlEqualTo("/callback")).willReturn(aResponse().withStatus(200).withFixedDelay(300)));
+        stubWebhook(webhookToCallback());
+
+        client.post("/something-async", null);
+        waitForCallbackToStart();
+
+        WebhookShutdownReport report = webhooks.shutdown(2000, MILLISECONDS);
+
+        assertThat(report.getAbandonedCount(), is(0));
+        assertThat(targetServer.findAll(postRequestedFor(urlEqualTo("/callback"))).size(), is(1));
+    }
+
+    @Test
+    public void abandonsDelayedWebhooksWithoutWaitingForThem() throws Exception {
+        stubWebhook(webhookToCallback().withFixedDelay(5000));
+
+        client.post("/something-async", null);
+        Thread.sleep(100);
+
+        long start = System.currentTimeMillis();
+        WebhookShutdownReport report = webhooks.shutdown(2000, MILLISECONDS);
+
+        assertThat(System.currentTimeMillis() - start, lessThan(1000L));
+        assertThat(report.getAbandonedDelayedCount(), is(1));
+    }
+
+    @Test
+    public void reportsWebhooksStillInFlightAtTheDeadline() throws Exception {
+        targetServer.stubFor(post(urlEqualTo("/callback")).willReturn(aResponse().withStatus(200).withFixedDelay(2000)));
+        stubWebhook(webhookToCallback());
+
+        client.post("/something-async", null);
+        waitForCallbackToStart();
+
+        WebhookShutdownReport report = webhooks.shutdown(100, MILLISECONDS);
+
+        assertThat(report.getAbandonedInFlightCount(), is(1));
+    }
+
+    @Test
+    public void stopsSendingWebhooksOnceShutDown() throws Exception {
+        stubWebhook(webhookToCallback());
+        webhooks.shutdown();
+
+        client.post("/something-async", null);
+        Thread.sleep(300);
+
+        assertThat(targetServer.findAll(postRequestedFor(urlEqualTo("/callback"))).size(), is(0));
+    }
+
+    private WebhookDefinition webhookToCallback() {
+        return webhook()
+            .withMethod(POST)
+            .withUrl("http://localhost:" + targetServer.port() + "/callback")
+            .withBody("done");
+    }
+
+    private void stubWebhook(WebhookDefinition webhook) {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook));
+    }
+
+    private void waitForCallbackToStart() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (targetServer.findAll(postRequestedFor(urlEqualTo("/callback"))).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.SignaturePolicy.signaturePolicy;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.SignaturePayload;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+import java.nio.charset.Charset;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+public class WebhookSignatureTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks(webhooksOptions().withTemplating(true));
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void signsTheBodyWithTheSecret() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/payments"))
+            .willReturn(aResponse().withStatus(202))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBody("{{request.body}}")
+                .withSignature(signaturePolicy()
+                    .withSecret("s3cret")
+                    .withHeaderName("X-Hub-Signature-256")
+                    .withPrefix("sha256=")))
+        );
+
+        client.post("/payments", new StringEntity("payment-1", TEXT_PLAIN));
+
+        LoggedRequest callback = waitForCallback();
+        assertThat(callback.getBodyAsString(), is("payment-1"));
+        assertThat(callback.getHeader("X-Hub-Signature-256"), is("sha256=" + hmacHex("HmacSHA256", "s3cret", "payment-1")));
+    }
+
+    @Test
+    public void signsTheTimestampAndBodyOfEachRequest() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/payments"))
+            .willReturn(aResponse().withStatus(202))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBody("paid")
+                .withSignature(signaturePolicy()
+                    .withSecret("s3cret")
+                    .withAlgorithm("HmacSHA512")
+                    .withPayload(SignaturePayload.TIMESTAMP_AND_BODY)))
+        );
+
+        client.post("/payments", new StringEntity("", TEXT_PLAIN));
+
+        LoggedRequest callback = waitForCallback();
+        String timestamp = callback.getHeader("X-Webhook-Timestamp");
+        assertThat(Long.parseLong(timestamp), lessThanOrEqualTo(System.currentTimeMillis() / 1000));
+        assertThat(callback.getHeader("X-Webhook-Signature"), is(hmacHex("HmacSHA512", "s3cret", timestamp + ".paid")));
+    }
+
+    private LoggedRequest waitForCallback() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        List<LoggedRequest> callbacks = targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback")));
+        while (callbacks.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            callbacks = targetServer.findAll(postRequestedFor(urlPathEqualTo("/callback")));
+        }
+        assertThat("Timed out waiting for the callback", callbacks.size(), is(1));
+        return callbacks.get(0);
+    }
+
+    private static String hmacHex(String algorithm, String secret, String payload) throws Exception {
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(new SecretKeySpec(secret.getBytes(UTF_8), algorithm));
+        StringBuilder hex = new StringBuilder();
+        for (byte b: mac.doFinal(payload.getBytes(UTF_8))) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package functional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static wiremock.org.apache.http.entity.ContentType.APPLICATION_JSON;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.wiremock.webhooks.Webhooks.webhook;
+import static testsupport.TestHttpHeader.withHeader;
+import static org.wiremock.webhooks.WebhooksOptions.webhooksOptions;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.wiremock.webhooks.Webhooks;
+import testsupport.WireMockTestClient;
+
+import java.util.List;
+
+public class WebhookTemplatingTest {
+
+    @Rule
+    public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
+
+    Webhooks webhooks = new Webhooks(webhooksOptions().withTemplating(true));
+
+    @Rule
+    public WireMockRule rule = new WireMockRule(
+        options()
+            .dynamicPort()
+            .extensions(webhooks));
+
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        targetServer.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200)));
+        client = new WireMockTestClient(rule.port());
+    }
+
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
+    @Test
+    public void rendersTheUrlHeadersAndBodyFromTheServedRequest() throws Exception {
+        rule.stubFor(post(urlPathMatching("/orders/.*"))
+            .willReturn(aResponse().withStatus(202))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback/{{request.pathSegments.[1]}}")
+                .withHeader("Content-Type", "application/json")
+                .withHeader("X-Order-Source", "{{request.headers.X-Source}}")
+                .withBody("{ \"order\": \"{{request.pathSegments.[1]}}\", \"amount\": {{jsonPath request.body '$.amount'}} }"))
+        );
+
+        client.post("/orders/1234", new StringEntity("{ \"amount\": 42 }", APPLICATION_JSON),
+            withHeader("X-Source", "web"));
+        client.post("/orders/5678", new StringEntity("{ \"amount\": 7 }", APPLICATION_JSON),
+            withHeader("X-Source", "mobile"));
+
+        LoggedRequest first = waitForCallback("/callback/1234");
+        assertThat(first.getHeader("X-Order-Source"), is("web"));
+        assertThat(first.getBodyAsString(), is("{ \"order\": \"1234\", \"amount\": 42 }"));
+
+        LoggedRequest second = waitForCallback("/callback/5678");
+        assertThat(second.getHeader("X-Order-Source"), is("mobile"));
+        assertThat(second.getBodyAsString(), is("{ \"order\": \"5678\", \"amount\": 7 }"));
+    }
+
+    private LoggedRequest waitForCallback(String path) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        List<LoggedRequest> callbacks = targetServer.findAll(postRequestedFor(urlPathEqualTo(path)));
+        while (callbacks.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            callbacks = targetServer.findAll(postRequestedFor(urlPathEqualTo(path)));
+        }
+        assertThat("Timed out waiting for a request to " + path, callbacks.size(), is(1));
+        return callbacks.get(0);
+    }
+}
@@ -2,6 +2,7 @@ package functional;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
@@ -11,13 +12,16 @@ import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.reset;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
 import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static wiremock.org.apache.http.entity.ContentType.TEXT_PLAIN;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
@@ -29,8 +33,12 @@ import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.RequestListener;
 import com.github.tomakehurst.wiremock.http.Response;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import wiremock.org.apache.http.entity.StringEntity;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -45,6 +53,7 @@ public class WebhooksAcceptanceTest {
     public WireMockRule targetServer = new WireMockRule(options().dynamicPort());
 
     CountDownLatch latch;
+    int callbacksReceived;
 
     Webhooks webhooks = new Webhooks(
         new ConstantHttpHeaderWebhookTransformer()
@@ -75,6 +84,7 @@ public class WebhooksAcceptanceTest {
         targetServer.stubFor(any(anyUrl())
             .willReturn(aResponse().withStatus(200)));
         latch = new CountDownLatch(1);
+        callbacksReceived = 0;
         client = new WireMockTestClient(rule.port());
         WireMock.configureFor(targetServer.port());
 
@@ -82,6 +92,11 @@ public class WebhooksAcceptanceTest {
         System.out.println("Under test server port: " + rule.port());
     }
 
+    @After
+    public void shutdown() {
+        webhooks.shutdown(100, MILLISECONDS);
+    }
+
     @Test
     public void firesASingleWebhookWhenRequested() throws Exception {
         rule.stubFor(post(urlPathEqualTo("/something-async"))
@@ -131,10 +146,120 @@ public class WebhooksAcceptanceTest {
                 equalTo(ConstantHttpHeaderWebhookTransformer.value)));
     }
 
+    @Test
+    public void usesTheUpdatedWebhookAfterTheStubIsEdited() throws Exception {
+        UUID stubId = UUID.randomUUID();
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .withId(stubId)
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBody("first"))
+        );
+
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        waitForRequestToTargetServer();
+
+        latch = new CountDownLatch(1);
+        rule.editStub(post(urlPathEqualTo("/something-async"))
+            .withId(stubId)
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBody("second"))
+        );
+
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        waitForRequestToTargetServer();
+
+        verify(1, postRequestedFor(urlEqualTo("/callback")).withRequestBody(equalTo("first")));
+        verify(1, postRequestedFor(urlEqualTo("/callback")).withRequestBody(equalTo("second")));
+    }
+
+    @Test
+    public void firesWebhookAfterItsDelay() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withBody("delayed")
+                .withFixedDelay(300)
+                .withUniformRandomDelay(0, 50))
+        );
+
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+
+        Thread.sleep(100);
+        assertThat("Webhook should not have been sent before its delay", latch.getCount(), is(1L));
+        waitForRequestToTargetServer();
+    }
+
+    @Test
+    public void sendsEveryValueOfAMultiValuedHeaderOnEachDelivery() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withHeader("X-Tag", "first", "second")
+                .withBody("tagged"))
+        );
+
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+
+        long deadline = System.currentTimeMillis() + 2000;
+        List<LoggedRequest> callbacks = targetServer.findAll(postRequestedFor(urlEqualTo("/callback")));
+        while (callbacks.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            callbacks = targetServer.findAll(postRequestedFor(urlEqualTo("/callback")));
+        }
+        assertThat(callbacks.size(), is(2));
+        for (LoggedRequest callback: callbacks) {
+            assertThat(callback.getHeaders().getHeader("X-Tag").values(), contains("first", "second"));
+            assertThat(callback.getBodyAsString(), is("tagged"));
+        }
+    }
+
+    @Test
+    public void sendsUrlsHeadersAndBodiesThatLookLikeTemplatesAsTheyAreByDefault() throws Exception {
+        rule.stubFor(post(urlPathEqualTo("/something-async"))
+            .willReturn(aResponse().withStatus(200))
+            .withPostServeAction("webhook", webhook()
+                .withMethod(POST)
+                .withUrl("http://localhost:" + targetServer.port() + "/callback")
+                .withHeader("X-Greeting", "Hello {{name}}")
+                .withBody("{\"template\":\"Hello {{name}}\"}"))
+        );
+
+        client.post("/something-async", new StringEntity("", TEXT_PLAIN));
+
+        long deadline = System.currentTimeMillis() + 2000;
+        List<LoggedRequest> callbacks = targetServer.findAll(postRequestedFor(urlEqualTo("/callback")));
+        while (callbacks.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            callbacks = targetServer.findAll(postRequestedFor(urlEqualTo("/callback")));
+        }
+        assertThat(callbacks.size(), is(1));
+        assertThat(callbacks.get(0).getHeader("X-Greeting"), is("Hello {{name}}"));
+        assertThat(callbacks.get(0).getBodyAsString(), is("{\"template\":\"Hello {{name}}\"}"));
+    }
+
     private void waitForRequestToTargetServer() throws Exception {
         latch.await(2, SECONDS);
         assertThat("Timed out waiting for target server to receive a request",
             latch.getCount(), is(0L));
+
+        // The listener is told before the request is logged, so wait for it to be verifiable too
+        callbacksReceived++;
+        long deadline = System.currentTimeMillis() + 2000;
+        while (targetServer.findAll(anyRequestedFor(urlPathMatching("/callback.*"))).size() < callbacksReceived
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
     }
 
 }